@@ -0,0 +1,120 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.benchmark;
+
+import java.lang.reflect.Field;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import org.jboss.as.quickstarts.batch.job.ContactsFormatter;
+import org.jboss.as.quickstarts.batch.model.Contact;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks the {@link ContactsFormatter} processing of a million records, such as the ones generated by the BatchController,
+ * against the previous processing, which used a regex, String concatenation, and logged each record at INFO level.
+ *
+ * The results are the average time per record. The records are logged to a logger without handlers, thus the cost measured
+ * is the one of creating the log messages, and not of writing these.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class ContactsFormatterBenchmark {
+
+    private static final int RECORDS = 1000000;
+
+    private String[] names;
+
+    private String[] phones;
+
+    private Logger log;
+
+    private ContactsFormatter formatter;
+
+    @Setup
+    public void setup() throws Exception {
+        final SplittableRandom random = new SplittableRandom(42);
+        names = new String[RECORDS];
+        phones = new String[RECORDS];
+        for (int i = 0; i < RECORDS; i++) {
+            final char[] name = new char[10];
+            for (int j = 0; j < name.length; j++) {
+                name[j] = (char) (random.nextBoolean() ? random.nextInt('a', 'z' + 1) : random.nextInt('A', 'Z' + 1));
+            }
+            names[i] = new String(name);
+            final char[] phone = new char[9];
+            for (int j = 0; j < phone.length; j++) {
+                phone[j] = (char) random.nextInt('0', '9' + 1);
+            }
+            phones[i] = new String(phone);
+        }
+        log = Logger.getAnonymousLogger();
+        log.setUseParentHandlers(false);
+        formatter = new ContactsFormatter();
+        final Field field = ContactsFormatter.class.getDeclaredField("log");
+        field.setAccessible(true);
+        field.set(formatter, log);
+    }
+
+    private Contact contact(int i) {
+        final Contact contact = new Contact();
+        contact.setId(i + 1);
+        contact.setName(names[i]);
+        contact.setPhone(phones[i]);
+        return contact;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public void formatter(Blackhole blackhole) throws Exception {
+        for (int i = 0; i < RECORDS; i++) {
+            blackhole.consume(formatter.processItem(contact(i)));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public void previousFormatter(Blackhole blackhole) {
+        for (int i = 0; i < RECORDS; i++) {
+            final Contact c = contact(i);
+            String name = c.getName();
+            String newName = Character.toUpperCase(name.charAt(0)) + name.substring(1).toLowerCase();
+            c.setName(newName);
+            String phone = c.getPhone();
+            String newPhone = phone.replaceFirst("(\\d{3})(\\d{3})(\\d+)", "($1)-$2-$3");
+            c.setPhone(newPhone);
+            log.info(String.format("Register #%d - Changing name %s -> %s | phone  %s -> %s", c.getId(), name, newName, phone, newPhone));
+            blackhole.consume(c);
+        }
+    }
+}
@@ -16,25 +16,14 @@
  */
 package org.jboss.as.quickstarts.batch.controller;
 
-import java.io.BufferedWriter;
-import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Properties;
-import java.util.Random;
-import java.util.Set;
-import java.util.TreeSet;
 import java.util.logging.Logger;
 
+import jakarta.annotation.PostConstruct;
 import jakarta.batch.operations.JobOperator;
-import jakarta.batch.operations.NoSuchJobException;
 import jakarta.batch.runtime.BatchRuntime;
-import jakarta.batch.runtime.JobExecution;
-import jakarta.batch.runtime.JobInstance;
 import jakarta.enterprise.inject.Model;
 import jakarta.faces.application.FacesMessage;
 import jakarta.faces.context.FacesContext;
@@ -42,6 +31,8 @@ import jakarta.inject.Inject;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 
+import org.jboss.as.quickstarts.batch.job.ContactsPersister;
+
 //The @Model stereotype is a convenience mechanism to make this a request-scoped bean that has an
 //EL name
 //Read more about the @Model stereotype in this FAQ:
@@ -49,105 +40,138 @@ import jakarta.validation.constraints.Min;
 @Model
 public class BatchController {
 
+    // the client id of the hidden input which keeps the jobs list page
+    private static final String JOBS_PAGE_NUMBER_PARAM = "form:jobsPageNumber";
+
     @Inject
     private FacesContext facesContext;
 
     @Inject
     private Logger log;
 
+    @Inject
+    private JobHistory jobHistory;
+
+    @Inject
+    private RecordsGenerator recordsGenerator;
+
     private String fileName = "temp-file.txt";
 
     private boolean generateWithError;
 
+    // the records ids must fit an int
     @Min(0)
-    @Max(1000000)
+    @Max(1000000000)
     private Long numRecords = 10L;
 
-    public void generate() throws IOException {
-        File tempFile = new File(System.getProperty("java.io.tmpdir"), fileName);
-        try (BufferedWriter bos = new BufferedWriter(new FileWriter(tempFile, false))) {
-            log.info("Starting to generate " + numRecords + " records in file " + tempFile);
-            String previousName = null;
-            final Random random = new Random();
-            for (int x = 0; x < numRecords; x++) {
-                // generate random name
-                String name = random.ints('a','z'+1)
-                        .limit(10)
-                        .collect(StringBuilder::new, (sb, i) -> sb.append((char) i), StringBuilder::append)
-                        .toString();
-                // generate random phone number
-                String phone = random.ints('0','9'+1)
-                        .limit(9)
-                        .collect(StringBuilder::new, (sb, i) -> sb.append((char) i), StringBuilder::append)
-                        .toString();
-                // Generate a duplicate name;
-                if (generateWithError && x == (numRecords / 2)) {
-                    name = previousName;
-                }
-                String record = (x + 1) + "|" + name + "|" + phone;
-                bos.write(record + "\n");
-                previousName = name;
-            }
-            log.info("File generated at " + tempFile);
-            facesContext.addMessage(null, new FacesMessage(FacesMessage.SEVERITY_INFO,
-                "File generated with " + numRecords + " records to be imported. File name: " + getFileName(), null));
-            if (generateWithError) {
-                facesContext.addMessage(null, new FacesMessage(FacesMessage.SEVERITY_ERROR, "Attention: This file contains duplicate records for test purpose.", null));
+    // the import job's chunk size, i.e. the records persisted in each transaction
+    @Min(1)
+    private Integer itemCount = 3;
+
+    // the number of partitions of the import job, each importing a part of the file in its own thread
+    @Min(1)
+    private Integer partitions = 1;
+
+    // how the import job writes the records, see ContactsPersister
+    private String writeMode = ContactsPersister.WRITE_MODE_JPA;
+
+    // the page of the jobs list being shown, kept by the view across requests
+    private int jobsPageNumber;
+
+    private JobHistory.Page jobsPage;
+
+    @PostConstruct
+    public void readJobsPageNumber() {
+        // read before the view is processed, so the jobs list rows, e.g. the one with a restart button clicked, are the ones shown
+        String value = facesContext.getExternalContext().getRequestParameterMap().get(JOBS_PAGE_NUMBER_PARAM);
+        if (value != null) {
+            try {
+                setJobsPageNumber(Integer.parseInt(value));
+            } catch (NumberFormatException e) {
+                // shows the first page
             }
         }
     }
 
+    public void generate() throws IOException {
+        startGeneration();
+    }
+
     public void generateFileAndStarJob() throws IOException {
-        generate();
-        startImport();
+        RecordsGenerator.Generation generation = startGeneration();
+        if (generation != null) {
+            // the file is generated in the background, this request ends before it is complete
+            Properties jobParameters = getJobParameters();
+            JobHistory history = jobHistory;
+            Logger logger = log;
+            generation.getCompletion().thenRun(() -> {
+                long execID = BatchRuntime.getJobOperator().start(JobHistory.JOB_NAME, jobParameters);
+                history.invalidate();
+                logger.info("New job execution #" + execID + " running. Importing file:" + jobParameters.getProperty("fileName"));
+            });
+            facesContext.addMessage(null, new FacesMessage(FacesMessage.SEVERITY_INFO, "The import job will start once the file is generated", null));
+        }
+    }
+
+    private RecordsGenerator.Generation startGeneration() throws IOException {
+        RecordsGenerator.Generation generation;
+        try {
+            generation = recordsGenerator.generate(getFileName(), numRecords, generateWithError);
+        } catch (IllegalStateException e) {
+            facesContext.addMessage(null, new FacesMessage(FacesMessage.SEVERITY_ERROR, e.getMessage(), null));
+            return null;
+        }
+        facesContext.addMessage(null, new FacesMessage(FacesMessage.SEVERITY_INFO,
+            "Generating a file with " + numRecords + " records to be imported. File name: " + getFileName(), null));
+        if (generateWithError) {
+            facesContext.addMessage(null, new FacesMessage(FacesMessage.SEVERITY_ERROR, "Attention: This file contains duplicate records for test purpose.", null));
+        }
+        return generation;
+    }
+
+    public List<RecordsGenerator.Generation> getRunningGenerations() {
+        return recordsGenerator.getRunningGenerations();
     }
 
     public void startImport() {
+        if (recordsGenerator.isGenerating(getFileName())) {
+            facesContext.addMessage(null, new FacesMessage(FacesMessage.SEVERITY_ERROR, "File " + getFileName() + " is still being generated", null));
+            return;
+        }
         JobOperator jobOperator = BatchRuntime.getJobOperator();
-        Properties jobParameters = new Properties();
-        jobParameters.setProperty("fileName", getFileName());
-        long execID = jobOperator.start("import-file", jobParameters);
+        long execID = jobOperator.start(JobHistory.JOB_NAME, getJobParameters());
+        jobHistory.invalidate();
+        jobsPage = null;
         facesContext.addMessage(null, new FacesMessage(FacesMessage.SEVERITY_INFO, "New job execution #" + execID + " running. Importing file:" + getFileName(), null));
     }
 
-    public Set<JobData> getJobsExecution() {
-        Set<JobData> jobsData = new TreeSet<JobData>(new Comparator<JobData>() {
+    private Properties getJobParameters() {
+        Properties jobParameters = new Properties();
+        jobParameters.setProperty("fileName", getFileName());
+        jobParameters.setProperty("itemCount", String.valueOf(getItemCount()));
+        jobParameters.setProperty("writeMode", getWriteMode());
+        jobParameters.setProperty("partitions", String.valueOf(getPartitions()));
+        return jobParameters;
+    }
 
-            @Override
-            public int compare(JobData o1, JobData o2) {
-                return o2.getJobInstanceId().compareTo(o1.getJobInstanceId());
-            }
-        });
-        Map<Long, JobExecution> jobIntances = new HashMap<>();
-        JobOperator jobOperator = BatchRuntime.getJobOperator();
-        try {
-            List<JobInstance> instances = jobOperator.getJobInstances("import-file", 0, jobOperator.getJobInstanceCount("import-file"));
-            for (JobInstance ji : instances) {
-                List<JobExecution> executions = jobOperator.getJobExecutions(ji);
-                for (JobExecution jobExecution : executions) {
-                    // initialize the map if null
-                    if (jobIntances.get(ji.getInstanceId()) == null) {
-                        jobIntances.put(ji.getInstanceId(), jobExecution);
-                    }
-                    // Update the jobExecution if is newer
-                    JobExecution existing = jobIntances.get(ji.getInstanceId());
-                    if (jobExecution.getExecutionId() > existing.getExecutionId()) {
-                        jobIntances.put(ji.getInstanceId(), jobExecution);
-                    }
-                }
-            }
-            for (Long instaceId : jobIntances.keySet()) {
-                JobExecution jobExecution = jobIntances.get(instaceId);
-                JobInstance ji = jobOperator.getJobInstance(jobExecution.getExecutionId());
-                Properties parameters = jobOperator.getParameters(jobExecution.getExecutionId());
-                jobsData.add(new JobData(ji.getInstanceId(), jobExecution.getExecutionId(), ji.getJobName(), jobExecution.getCreateTime(), jobExecution.getEndTime(), jobExecution
-                    .getBatchStatus(), parameters, jobExecution.getExitStatus()));
+    public JobHistory.Page getJobsPage() {
+        if (jobsPage == null) {
+            jobsPage = jobHistory.getPage(jobsPageNumber);
+            // the history may have fewer pages since it was last shown
+            if (jobsPage.getJobs().isEmpty() && jobsPageNumber > 0) {
+                jobsPageNumber = Math.max(jobsPage.getPageCount() - 1, 0);
+                jobsPage = jobHistory.getPage(jobsPageNumber);
             }
-        } catch (NoSuchJobException e) {
-            // It's ok if when doesn't have any jobs yet to show
         }
+        return jobsPage;
+    }
+
+    public void newerJobs() {
+        setJobsPageNumber(jobsPageNumber - 1);
+    }
 
-        return jobsData;
+    public void olderJobs() {
+        setJobsPageNumber(jobsPageNumber + 1);
     }
 
     public void restartJob(int executionId) {
@@ -155,9 +179,20 @@ public class BatchController {
         Properties jobParameters = jobOperator.getParameters(executionId);
         jobParameters.setProperty("restartedOnce", "true");
         long newExecutionId = jobOperator.restart(executionId, jobParameters);
+        jobHistory.invalidate();
+        jobsPage = null;
         facesContext.addMessage(null, new FacesMessage(FacesMessage.SEVERITY_WARN, "Execution " + executionId + " restarted! New execution id: " + newExecutionId, null));
     }
 
+    public int getJobsPageNumber() {
+        return jobsPageNumber;
+    }
+
+    public void setJobsPageNumber(int jobsPageNumber) {
+        this.jobsPageNumber = Math.max(jobsPageNumber, 0);
+        this.jobsPage = null;
+    }
+
     public Long getNumRecords() {
         return numRecords;
     }
@@ -166,6 +201,30 @@ public class BatchController {
         this.numRecords = numRecords;
     }
 
+    public Integer getItemCount() {
+        return itemCount;
+    }
+
+    public void setItemCount(Integer itemCount) {
+        this.itemCount = itemCount;
+    }
+
+    public Integer getPartitions() {
+        return partitions;
+    }
+
+    public void setPartitions(Integer partitions) {
+        this.partitions = partitions;
+    }
+
+    public String getWriteMode() {
+        return writeMode;
+    }
+
+    public void setWriteMode(String writeMode) {
+        this.writeMode = writeMode;
+    }
+
     public boolean isGenerateWithError() {
         return generateWithError;
     }
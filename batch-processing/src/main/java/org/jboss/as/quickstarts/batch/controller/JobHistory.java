@@ -0,0 +1,152 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.controller;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import jakarta.batch.operations.JobOperator;
+import jakarta.batch.operations.NoSuchJobException;
+import jakarta.batch.runtime.BatchRuntime;
+import jakarta.batch.runtime.BatchStatus;
+import jakarta.batch.runtime.JobExecution;
+import jakarta.batch.runtime.JobInstance;
+import jakarta.enterprise.context.ApplicationScoped;
+
+//This class provides the job instances shown in the dashboard, one page at a time, with the latest
+//execution of each instance. Each page only queries the job repository for its own instances, and
+//it is cached until a job starts or finishes, see JobListener, or until it gets older than MAX_AGE,
+//thus rendering the dashboard does not depend on the number of jobs ever run
+@ApplicationScoped
+public class JobHistory {
+
+    public static final String JOB_NAME = "import-file";
+
+    public static final int PAGE_SIZE = 10;
+
+    // bounds how long a page may miss changes which are not notified, e.g. a job abandoned through the management console
+    private static final long MAX_AGE = TimeUnit.SECONDS.toNanos(30);
+
+    private final Map<Integer, Page> pages = new ConcurrentHashMap<>();
+
+    // incremented on each invalidation, so a page loaded meanwhile is not used
+    private final AtomicLong generation = new AtomicLong();
+
+    public Page getPage(int number) {
+        final Page page = pages.get(number);
+        if (page != null && page.generation == generation.get() && System.nanoTime() - page.loadTime < MAX_AGE) {
+            return page;
+        }
+        final Page loaded = load(number);
+        // pages with unfinished executions are not cached, their status changes without notifications
+        if (loaded.finished) {
+            pages.put(number, loaded);
+        }
+        return loaded;
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+        pages.clear();
+    }
+
+    private Page load(int number) {
+        final long loadGeneration = generation.get();
+        final long loadTime = System.nanoTime();
+        final JobOperator jobOperator = BatchRuntime.getJobOperator();
+        final List<JobData> jobs = new ArrayList<>(PAGE_SIZE);
+        int jobInstanceCount = 0;
+        boolean finished = true;
+        try {
+            jobInstanceCount = jobOperator.getJobInstanceCount(JOB_NAME);
+            // instances are returned from the most recent to the least recent
+            for (JobInstance ji : jobOperator.getJobInstances(JOB_NAME, number * PAGE_SIZE, PAGE_SIZE)) {
+                JobExecution latest = null;
+                for (JobExecution jobExecution : jobOperator.getJobExecutions(ji)) {
+                    if (latest == null || jobExecution.getExecutionId() > latest.getExecutionId()) {
+                        latest = jobExecution;
+                    }
+                }
+                if (latest == null) {
+                    continue;
+                }
+                final BatchStatus batchStatus = latest.getBatchStatus();
+                if (batchStatus == BatchStatus.STARTING || batchStatus == BatchStatus.STARTED || batchStatus == BatchStatus.STOPPING) {
+                    finished = false;
+                }
+                jobs.add(new JobData(ji.getInstanceId(), latest.getExecutionId(), ji.getJobName(), latest.getCreateTime(), latest.getEndTime(),
+                    batchStatus, latest.getJobParameters(), latest.getExitStatus()));
+            }
+        } catch (NoSuchJobException e) {
+            // It's ok if when doesn't have any jobs yet to show
+        }
+        return new Page(number, Collections.unmodifiableList(jobs), jobInstanceCount, finished, loadGeneration, loadTime);
+    }
+
+    public static class Page {
+
+        private final int number;
+
+        private final List<JobData> jobs;
+
+        private final int jobInstanceCount;
+
+        private final boolean finished;
+
+        private final long generation;
+
+        private final long loadTime;
+
+        private Page(int number, List<JobData> jobs, int jobInstanceCount, boolean finished, long generation, long loadTime) {
+            this.number = number;
+            this.jobs = jobs;
+            this.jobInstanceCount = jobInstanceCount;
+            this.finished = finished;
+            this.generation = generation;
+            this.loadTime = loadTime;
+        }
+
+        public int getNumber() {
+            return number;
+        }
+
+        public List<JobData> getJobs() {
+            return jobs;
+        }
+
+        public int getJobInstanceCount() {
+            return jobInstanceCount;
+        }
+
+        public int getPageCount() {
+            return (jobInstanceCount + PAGE_SIZE - 1) / PAGE_SIZE;
+        }
+
+        public boolean isPrevious() {
+            return number > 0;
+        }
+
+        public boolean isNext() {
+            return (number + 1) * PAGE_SIZE < jobInstanceCount;
+        }
+    }
+}
@@ -0,0 +1,279 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.controller;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ManagedExecutorService;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+//This class generates the files to import, in the background. The records are split in parts, generated
+//in parallel by the managed executor service, and each part writes its lines straight to its own region
+//of the file, through a large direct buffer, thus files with hundreds of millions of records take seconds
+//
+//Each record is a line with the format id|name|phone, where the name has 10 lowercase letters and the
+//phone has 9 digits
+@ApplicationScoped
+public class RecordsGenerator {
+
+    // the minimum number of records of each part, smaller files are not worth splitting
+    private static final long PART_RECORDS = 1 << 20;
+
+    private static final int BUFFER_SIZE = 4 << 20;
+
+    private static final int NAME_LENGTH = 10;
+
+    private static final int PHONE_LENGTH = 9;
+
+    // the bytes of a line besides the id: the name, the phone, two separators and the line end
+    private static final int LINE_FIXED_LENGTH = NAME_LENGTH + PHONE_LENGTH + 3;
+
+    private static final int MAX_LINE_LENGTH = 19 + LINE_FIXED_LENGTH;
+
+    @Inject
+    private Logger log;
+
+    @Resource
+    private ManagedExecutorService executorService;
+
+    // the latest generation of each file
+    private final Map<String, Generation> generations = new ConcurrentHashMap<>();
+
+    public Generation generate(String fileName, long numRecords, boolean withDuplicate) throws IOException {
+        final Generation generation = new Generation(fileName, numRecords);
+        generations.compute(fileName, (name, previous) -> {
+            if (previous != null && !previous.isDone()) {
+                throw new IllegalStateException("File " + name + " is still being generated");
+            }
+            return generation;
+        });
+        final File file = new File(System.getProperty("java.io.tmpdir"), fileName);
+        final FileChannel channel;
+        try {
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        } catch (IOException e) {
+            generation.completion.completeExceptionally(e);
+            throw e;
+        }
+        log.info("Starting to generate " + numRecords + " records in file " + file);
+        final SplittableRandom random = new SplittableRandom();
+        // the names are a random permutation of the record numbers, so there are no accidental duplicates,
+        // even with hundreds of millions of records
+        final NamePermutation names = new NamePermutation(random);
+        // the duplicate record has the name of the previous record
+        final long duplicate = withDuplicate && numRecords > 1 ? numRecords / 2 : -1;
+        final int parts = (int) Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), numRecords / PART_RECORDS));
+        final CompletableFuture<?>[] futures = new CompletableFuture<?>[parts];
+        for (int part = 0; part < parts; part++) {
+            final long first = numRecords * part / parts;
+            final long end = numRecords * (part + 1) / parts;
+            final SplittableRandom partRandom = random.split();
+            futures[part] = CompletableFuture.runAsync(() -> {
+                final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+                long position = length(first);
+                long flushed = first;
+                try {
+                    for (long x = first; x < end; x++) {
+                        if (buffer.remaining() < MAX_LINE_LENGTH) {
+                            position = write(channel, buffer, position);
+                            generation.generated.add(x - flushed);
+                            flushed = x;
+                        }
+                        putDigits(buffer, x + 1, digits(x + 1));
+                        buffer.put((byte) '|');
+                        putName(buffer, names.apply(x == duplicate ? x - 1 : x));
+                        buffer.put((byte) '|');
+                        putDigits(buffer, partRandom.nextInt(1000000000), PHONE_LENGTH);
+                        buffer.put((byte) '\n');
+                    }
+                    write(channel, buffer, position);
+                    generation.generated.add(end - flushed);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, executorService);
+        }
+        CompletableFuture.allOf(futures).whenComplete((result, failure) -> {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+            if (failure == null) {
+                log.info("File generated at " + file);
+                generation.completion.complete(null);
+            } else {
+                log.log(Level.SEVERE, "Failed to generate file " + file, failure);
+                generation.completion.completeExceptionally(failure);
+            }
+        });
+        return generation;
+    }
+
+    public List<Generation> getRunningGenerations() {
+        final List<Generation> running = new ArrayList<>();
+        for (Generation generation : generations.values()) {
+            if (!generation.isDone()) {
+                running.add(generation);
+            }
+        }
+        return running;
+    }
+
+    public boolean isGenerating(String fileName) {
+        final Generation generation = generations.get(fileName);
+        return generation != null && !generation.isDone();
+    }
+
+    private static long write(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            // positional writes do not change the channel's position, thus the parts may write concurrently
+            position += channel.write(buffer, position);
+        }
+        buffer.clear();
+        return position;
+    }
+
+    // the length of the lines of the first records, where the ids take 1 byte from 1, 2 bytes from 10, and so on
+    static long length(long records) {
+        long length = records * LINE_FIXED_LENGTH;
+        for (long from = 1; from <= records; from *= 10) {
+            length += records - from + 1;
+        }
+        return length;
+    }
+
+    private static int digits(long value) {
+        int digits = 1;
+        while (value >= 10) {
+            value /= 10;
+            digits++;
+        }
+        return digits;
+    }
+
+    private static void putDigits(ByteBuffer buffer, long value, int digits) {
+        final int start = buffer.position();
+        for (int i = start + digits - 1; i >= start; i--) {
+            buffer.put(i, (byte) ('0' + value % 10));
+            value /= 10;
+        }
+        buffer.position(start + digits);
+    }
+
+    private static void putName(ByteBuffer buffer, long value) {
+        final int start = buffer.position();
+        for (int i = start + NAME_LENGTH - 1; i >= start; i--) {
+            buffer.put(i, (byte) ('a' + value % 26));
+            value /= 26;
+        }
+        buffer.position(start + NAME_LENGTH);
+    }
+
+    // Maps the record numbers to distinct names, through a Feistel network over the name halves, which is
+    // a permutation whatever the rounds function, thus the names of consecutive records look unrelated
+    private static class NamePermutation {
+
+        // the number of distinct name halves, 26^5
+        private static final long HALVES = 11881376L;
+
+        private final long[] keys = new long[4];
+
+        private NamePermutation(SplittableRandom random) {
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = random.nextLong();
+            }
+        }
+
+        long apply(long number) {
+            long left = number / HALVES;
+            long right = number % HALVES;
+            for (long key : keys) {
+                final long next = (left + Math.floorMod(mix(right ^ key), HALVES)) % HALVES;
+                left = right;
+                right = next;
+            }
+            return left * HALVES + right;
+        }
+
+        private static long mix(long z) {
+            z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+            z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+            return z ^ (z >>> 33);
+        }
+    }
+
+    public static class Generation {
+
+        private final String fileName;
+
+        private final long numRecords;
+
+        private final LongAdder generated = new LongAdder();
+
+        private final CompletableFuture<Void> completion = new CompletableFuture<>();
+
+        private Generation(String fileName, long numRecords) {
+            this.fileName = fileName;
+            this.numRecords = numRecords;
+        }
+
+        public String getFileName() {
+            return fileName;
+        }
+
+        public long getNumRecords() {
+            return numRecords;
+        }
+
+        public long getGenerated() {
+            return generated.sum();
+        }
+
+        public int getPercentage() {
+            return numRecords == 0 ? 100 : (int) (getGenerated() * 100 / numRecords);
+        }
+
+        public boolean isDone() {
+            return completion.isDone();
+        }
+
+        public CompletionStage<Void> getCompletion() {
+            return completion;
+        }
+    }
+}
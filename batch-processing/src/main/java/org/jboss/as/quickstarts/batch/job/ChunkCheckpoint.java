@@ -21,6 +21,7 @@ import java.io.Serializable;
 /**
  * This class controls the checkpoint for the {@link RecordsReader}
  *
+ * It holds the byte offset of the next line to read, so a restart seeks directly to it, and the line number for reporting.
  */
 public class ChunkCheckpoint implements Serializable {
 
@@ -28,12 +29,19 @@ public class ChunkCheckpoint implements Serializable {
 
     private long lineNumber;
 
-    public void increase() {
+    private long byteOffset;
+
+    public void increase(long nextLineByteOffset) {
         lineNumber++;
+        byteOffset = nextLineByteOffset;
     }
 
     public long getLineNumber() {
         return lineNumber;
     }
 
+    public long getByteOffset() {
+        return byteOffset;
+    }
+
 }
@@ -0,0 +1,56 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.job;
+
+import java.util.logging.Logger;
+
+import jakarta.batch.api.AbstractBatchlet;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.UserTransaction;
+
+//This batchlet cleans the database before the import. It runs once per job instance, since a restart skips completed steps,
+//and before any partition of the import step, which then may run in parallel
+@Named("cleanDatabaseBatchlet")
+public class CleanDatabaseBatchlet extends AbstractBatchlet {
+
+    @Inject
+    private EntityManager entityManager;
+
+    // batchlets do not run in a transaction, unlike chunks
+    @Inject
+    private UserTransaction userTransaction;
+
+    @Inject
+    private Logger log;
+
+    @Override
+    public String process() throws Exception {
+        log.info("Cleaning the Database");
+        userTransaction.begin();
+        try {
+            entityManager.createQuery("DELETE FROM Contact c").executeUpdate();
+            userTransaction.commit();
+        } catch (Exception e) {
+            userTransaction.rollback();
+            throw e;
+        }
+        return "CLEANED";
+    }
+
+}
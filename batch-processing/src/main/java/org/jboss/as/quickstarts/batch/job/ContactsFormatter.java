@@ -16,8 +16,10 @@
  */
 package org.jboss.as.quickstarts.batch.job;
 
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import jakarta.batch.api.BatchProperty;
 import jakarta.batch.api.chunk.ItemProcessor;
 import jakarta.inject.Inject;
 import jakarta.inject.Named;
@@ -25,26 +27,113 @@ import jakarta.inject.Named;
 import org.jboss.as.quickstarts.batch.model.Contact;
 
 //This class will update the contact to the proper case and apply a mask to the phone number
+//Each record is logged at FINE level, and a sample of the records, by default 1 of each 1000, is logged at INFO level
 @Named("contactFormatter")
 public class ContactsFormatter implements ItemProcessor {
 
+    public static final int DEFAULT_LOG_INTERVAL = 1000;
+
     @Inject
     private Logger log;
 
+    // Here you can inject a property defined in import-file.xml
+    @Inject
+    @BatchProperty
+    private String logInterval;
+
+    // the log interval, -1 until read from the logInterval property
+    private int interval = -1;
+
+    // the records processed by this instance, to sample the records logged
+    private long processed;
+
     @Override
     public Object processItem(Object item) throws Exception {
         Contact c = (Contact) item;
         // Update the name to use just the first letter as upper case
         String name = c.getName();
-        String newName = Character.toUpperCase(name.charAt(0)) + name.substring(1).toLowerCase();
+        String newName = formatName(name);
         c.setName(newName);
 
         // Apply mask to the phone number
         String phone = c.getPhone();
-        String newPhone = phone.replaceFirst("(\\d{3})(\\d{3})(\\d+)", "($1)-$2-$3");
+        String newPhone = formatPhone(phone);
         c.setPhone(newPhone);
-        log.info(String.format("Register #%d - Changing name %s -> %s | phone  %s -> %s", c.getId(), name, newName, phone, newPhone));
+        if (interval == -1) {
+            interval = parseLogInterval(logInterval);
+        }
+        if (processed++ % interval == 0) {
+            log.info("Register #" + c.getId() + " - Changing name " + name + " -> " + newName + " | phone  " + phone + " -> " + newPhone);
+        } else if (log.isLoggable(Level.FINE)) {
+            log.fine("Register #" + c.getId() + " - Changing name " + name + " -> " + newName + " | phone  " + phone + " -> " + newPhone);
+        }
         return c;
     }
 
+    // The logInterval property, which defaults to DEFAULT_LOG_INTERVAL, and must be a number greater than 0
+    static int parseLogInterval(String logInterval) {
+        if (logInterval == null || logInterval.isEmpty()) {
+            return DEFAULT_LOG_INTERVAL;
+        }
+        final int interval;
+        try {
+            interval = Integer.parseInt(logInterval.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("The logInterval property must be a number greater than 0, but is " + logInterval, e);
+        }
+        if (interval < 1) {
+            throw new IllegalArgumentException("The logInterval property must be a number greater than 0, but is " + logInterval);
+        }
+        return interval;
+    }
+
+    // The first letter as upper case, and the others as lower case
+    public static String formatName(String name) {
+        final int length = name.length();
+        if (length == 0) {
+            return name;
+        }
+        final char[] chars = new char[length];
+        chars[0] = Character.toUpperCase(name.charAt(0));
+        for (int i = 1; i < length; i++) {
+            chars[i] = Character.toLowerCase(name.charAt(i));
+        }
+        return new String(chars);
+    }
+
+    // The first run of at least 7 digits, such as 978913851, masked as (978)-913-851, the same as
+    // phone.replaceFirst("(\\d{3})(\\d{3})(\\d+)", "($1)-$2-$3")
+    public static String formatPhone(String phone) {
+        final int length = phone.length();
+        int start = 0;
+        while (start < length) {
+            if (!isDigit(phone.charAt(start))) {
+                start++;
+                continue;
+            }
+            int end = start + 1;
+            while (end < length && isDigit(phone.charAt(end))) {
+                end++;
+            }
+            if (end - start >= 7) {
+                return new StringBuilder(length + 4)
+                        .append(phone, 0, start)
+                        .append('(')
+                        .append(phone, start, start + 3)
+                        .append(")-")
+                        .append(phone, start + 3, start + 6)
+                        .append('-')
+                        .append(phone, start + 6, length)
+                        .toString();
+            }
+            start = end;
+        }
+        return phone;
+    }
+
+    // the regex \d, i.e. only ASCII digits
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
 }
@@ -17,50 +17,96 @@
 package org.jboss.as.quickstarts.batch.job;
 
 import java.io.Serializable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.util.List;
-import java.util.logging.Logger;
 
+import jakarta.annotation.Resource;
+import jakarta.batch.api.BatchProperty;
 import jakarta.batch.api.chunk.AbstractItemWriter;
+import jakarta.batch.runtime.context.StepContext;
 import jakarta.inject.Inject;
 import jakarta.inject.Named;
 import jakarta.persistence.EntityManager;
+import javax.sql.DataSource;
 
 import org.jboss.as.quickstarts.batch.model.Contact;
 
-//This class will persist the contacts chunk at the database. It cleans the database if it's the first execution (no checkpoint)
+//This class will persist the contacts chunk at the database. The database is cleaned before, by the CleanDatabaseBatchlet
+//The whole chunk is sent to the database at once, with JDBC batching, either through JPA (flushing once per chunk) or plain JDBC
 @Named("contactsPersister")
 public class ContactsPersister extends AbstractItemWriter {
 
+    // the write modes, "jpa" persists the chunk and flushes once, "jdbc" inserts the chunk with a JDBC batch
+    public static final String WRITE_MODE_JPA = "jpa";
+    public static final String WRITE_MODE_JDBC = "jdbc";
+
+    private static final String INSERT_CONTACT = "INSERT INTO Contact (id, name, phone) VALUES (?, ?, ?)";
+
     @Inject
     private EntityManager entityManager;
 
+    // The same datasource used by the persistence unit, see persistence.xml
+    @Resource(lookup = "java:jboss/datasources/batch-processingDS")
+    private DataSource dataSource;
+
+    // Here you can inject a property defined in import-file.xml
     @Inject
-    private Logger log;
+    @BatchProperty
+    private String writeMode;
 
-    private Boolean hasCheckPoint;
+    // the step context holds the number of contacts written, until collected by the ImportCountCollector
+    @Inject
+    private StepContext stepContext;
+
+    private boolean jdbc;
 
     @Override
     public void open(Serializable checkpoint) throws Exception {
-        if (checkpoint == null) {
-            log.info("No checkpoint detected. Cleaning the Database");
-            entityManager.createQuery("DELETE FROM Contact c").executeUpdate();
-            hasCheckPoint = true;
+        if (writeMode == null || writeMode.isEmpty() || WRITE_MODE_JPA.equals(writeMode)) {
+            jdbc = false;
+        } else if (WRITE_MODE_JDBC.equals(writeMode)) {
+            jdbc = true;
+        } else {
+            throw new IllegalArgumentException("Unknown write mode " + writeMode);
         }
-
     }
 
     @Override
     public void writeItems(List<Object> items) throws Exception {
+        if (jdbc) {
+            insertItems(items);
+        } else {
+            persistItems(items);
+        }
+        Integer written = (Integer) stepContext.getTransientUserData();
+        stepContext.setTransientUserData((written == null ? 0 : written) + items.size());
+    }
+
+    // Hibernate groups the inserts in JDBC batches, see hibernate.jdbc.batch_size at persistence.xml
+    private void persistItems(List<Object> items) {
         for (int i = 0; i < items.size(); i++) {
             Contact c = (Contact) items.get(i);
             entityManager.persist(c);
-            entityManager.flush();
         }
+        entityManager.flush();
+        // the contacts are not needed anymore, do not let the persistence context grow with each chunk
+        entityManager.clear();
     }
 
-    @Override
-    public Serializable checkpointInfo() throws Exception {
-        return hasCheckPoint;
+    // The connection is enlisted in the chunk's transaction, as the entity manager
+    private void insertItems(List<Object> items) throws Exception {
+        try (Connection connection = dataSource.getConnection();
+            PreparedStatement statement = connection.prepareStatement(INSERT_CONTACT)) {
+            for (int i = 0; i < items.size(); i++) {
+                Contact c = (Contact) items.get(i);
+                statement.setInt(1, c.getId());
+                statement.setString(2, c.getName());
+                statement.setString(3, c.getPhone());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
     }
 
 }
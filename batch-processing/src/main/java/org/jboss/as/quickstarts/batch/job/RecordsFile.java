@@ -0,0 +1,194 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.job;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+
+/**
+ * Reads the lines of a records file through a {@link FileChannel} and a large buffer, which is reused for all lines.
+ *
+ * <p>
+ * A line is exposed as a range of bytes of {@link #buffer()}, so it may be parsed without decoding it to a String. The line is
+ * valid until the next call to {@link #nextLine()}. Lines end with '\n' or "\r\n", and the last line may have no end.
+ * </p>
+ */
+public class RecordsFile implements Closeable {
+
+    // the default buffer size, a line longer than the buffer makes it grow
+    public static final int DEFAULT_BUFFER_SIZE = 1024 * 1024;
+
+    private final FileChannel channel;
+
+    private ByteBuffer buffer;
+
+    private boolean endOfFile;
+
+    private int lineStart;
+
+    private int lineEnd;
+
+    // the byte offset, in the file, of the next line
+    private long position;
+
+    public RecordsFile(FileChannel channel) throws IOException {
+        this(channel, DEFAULT_BUFFER_SIZE);
+    }
+
+    public RecordsFile(FileChannel channel, int bufferSize) throws IOException {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocate(bufferSize);
+        // nothing read yet
+        this.buffer.flip();
+        this.position = channel.position();
+    }
+
+    /**
+     * Advances to the next line.
+     *
+     * @return false if the end of the file was reached
+     */
+    public boolean nextLine() throws IOException {
+        while (true) {
+            final int start = buffer.position();
+            final int newLine = indexOf(buffer.array(), start, buffer.limit(), (byte) '\n');
+            if (newLine >= 0) {
+                buffer.position(newLine + 1);
+                setLine(start, newLine);
+                return true;
+            }
+            if (endOfFile) {
+                if (!buffer.hasRemaining()) {
+                    return false;
+                }
+                // the last line has no end
+                buffer.position(buffer.limit());
+                setLine(start, buffer.limit());
+                return true;
+            }
+            fill();
+        }
+    }
+
+    private void setLine(int start, int end) {
+        position += buffer.position() - start;
+        lineStart = start;
+        lineEnd = end > start && buffer.array()[end - 1] == '\r' ? end - 1 : end;
+    }
+
+    private void fill() throws IOException {
+        buffer.compact();
+        if (!buffer.hasRemaining()) {
+            // the buffer holds a single incomplete line, grow it
+            final ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+            buffer.flip();
+            larger.put(buffer);
+            buffer = larger;
+        }
+        if (channel.read(buffer) < 0) {
+            endOfFile = true;
+        }
+        buffer.flip();
+    }
+
+    /**
+     * @return the buffer holding the current line's bytes
+     */
+    public byte[] buffer() {
+        return buffer.array();
+    }
+
+    /**
+     * @return the index, in {@link #buffer()}, of the current line's first byte
+     */
+    public int lineStart() {
+        return lineStart;
+    }
+
+    /**
+     * @return the index, in {@link #buffer()}, after the current line's last byte, excluding the line end
+     */
+    public int lineEnd() {
+        return lineEnd;
+    }
+
+    /**
+     * @return the current line, decoded with the specified charset
+     */
+    public String line(Charset charset) {
+        return new String(buffer.array(), lineStart, lineEnd - lineStart, charset);
+    }
+
+    /**
+     * @return the byte offset, in the file, of the next line
+     */
+    public long position() {
+        return position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * @return the index of the first occurrence of the byte in the range, or -1 if not found
+     */
+    public static int indexOf(byte[] bytes, int from, int to, byte b) {
+        for (int i = from; i < to; i++) {
+            if (bytes[i] == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Decodes the ASCII digits in the range, with an optional leading sign, without creating a String.
+     *
+     * @throws NumberFormatException if the range is not a valid int
+     */
+    public static int parseInt(byte[] bytes, int from, int to) {
+        int i = from;
+        final boolean negative = i < to && bytes[i] == '-';
+        if (negative || (i < to && bytes[i] == '+')) {
+            i++;
+        }
+        if (i == to) {
+            throw new NumberFormatException("Invalid number: \"" + new String(bytes, from, to - from) + "\"");
+        }
+        long value = 0;
+        for (; i < to; i++) {
+            final int digit = bytes[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException("Invalid number: \"" + new String(bytes, from, to - from) + "\"");
+            }
+            value = value * 10 + digit;
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                throw new NumberFormatException("Number out of range: \"" + new String(bytes, from, to - from) + "\"");
+            }
+        }
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE) {
+            throw new NumberFormatException("Number out of range: \"" + new String(bytes, from, to - from) + "\"");
+        }
+        return (int) value;
+    }
+}
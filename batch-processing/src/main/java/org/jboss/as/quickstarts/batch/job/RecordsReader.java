@@ -16,11 +16,13 @@
  */
 package org.jboss.as.quickstarts.batch.job;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
 import java.io.Serializable;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
 import java.util.logging.Logger;
+import java.util.regex.Pattern;
 
 import jakarta.batch.api.BatchProperty;
 import jakarta.batch.api.chunk.ItemReader;
@@ -30,9 +32,15 @@ import jakarta.inject.Named;
 import org.jboss.as.quickstarts.batch.model.Contact;
 
 //This class will read the file and return an instance of Contact to be imported
+//Records with a single character separator, such as [|], are parsed from the file bytes. Other separators use the regex.
 @Named("recordsReader")
 public class RecordsReader implements ItemReader {
 
+    // the parser modes, "auto" uses "bytes" if the separator is a single character, and "regex" otherwise
+    public static final String PARSER_MODE_AUTO = "auto";
+    public static final String PARSER_MODE_BYTES = "bytes";
+    public static final String PARSER_MODE_REGEX = "regex";
+
     // Here you can inject a property defined in import-file.xml
     @Inject
     @BatchProperty
@@ -43,16 +51,41 @@ public class RecordsReader implements ItemReader {
     @BatchProperty
     private String fileName;
 
+    // Here you can inject a property defined in import-file.xml
+    @Inject
+    @BatchProperty
+    private String parserMode;
+
+    // The partition's byte range, see RecordsPartitionMapper
+    @Inject
+    @BatchProperty
+    private String startOffset;
+
+    @Inject
+    @BatchProperty
+    private String endOffset;
+
     @Inject
     private Logger log;
 
-    private BufferedReader br;
+    // the files are written with the platform charset, see BatchController
+    private final Charset charset = Charset.defaultCharset();
+
+    private RecordsFile records;
+
+    // the separator byte, or -1 if parsing with the regex
+    private int separator;
+
+    private Pattern separatorPattern;
 
     private ChunkCheckpoint checkpoint;
 
+    // the byte offset where the next partition starts, or -1 to read until the end of the file
+    private long end;
+
     @Override
     public void close() throws Exception {
-        br.close();
+        records.close();
     }
 
     @Override
@@ -64,32 +97,109 @@ public class RecordsReader implements ItemReader {
         else {
             this.checkpoint = (ChunkCheckpoint) previousCheckpoint;
         }
-        br = new BufferedReader(new FileReader(new File(System.getProperty("java.io.tmpdir"), fileName)));
+        separator = parserSeparator();
+        if (separator < 0) {
+            // compile once, and not on every String.split
+            separatorPattern = Pattern.compile(separatorRegex);
+        }
+        log.info("Parsing records with " + (separator < 0 ? "separator regex " + separatorRegex : "separator byte '" + (char) separator + "'"));
+        final FileChannel channel = FileChannel.open(new File(System.getProperty("java.io.tmpdir"), fileName).toPath(), StandardOpenOption.READ);
+        end = endOffset == null || endOffset.isEmpty() ? -1 : Long.parseLong(endOffset);
         long lineNumber = checkpoint.getLineNumber();
-        if (lineNumber > 0) {
+        long byteOffset = checkpoint.getByteOffset();
+        if (lineNumber > 0 && byteOffset > 0) {
+            log.info("Seeking to line " + lineNumber + " (byte " + byteOffset + ") as marked by previous checkpoint");
+            channel.position(byteOffset);
+        } else if (startOffset != null && !startOffset.isEmpty()) {
+            channel.position(Long.parseLong(startOffset));
+        }
+        records = new RecordsFile(channel);
+        if (lineNumber > 0 && byteOffset == 0) {
+            // a checkpoint without byte offset, skip the lines
             log.info("Skipping to line " + lineNumber + " as marked by previous checkpoint");
+            for (long i = 0; i < lineNumber; i++) {
+                records.nextLine();
+            }
+        }
+    }
+
+    // the separator byte, or -1 if the records should be parsed with the separator regex
+    private int parserSeparator() {
+        final String mode = parserMode == null || parserMode.isEmpty() ? PARSER_MODE_AUTO : parserMode;
+        if (PARSER_MODE_REGEX.equals(mode)) {
+            return -1;
         }
-        for (long i = 0; i < lineNumber; i++) {
-            br.readLine();
+        final int c = singleCharacter(separatorRegex);
+        if (PARSER_MODE_BYTES.equals(mode) && c < 0) {
+            throw new IllegalArgumentException("Separator regex " + separatorRegex + " is not a single character, which the " + PARSER_MODE_BYTES + " parser mode requires");
+        }
+        if (!PARSER_MODE_BYTES.equals(mode) && !PARSER_MODE_AUTO.equals(mode)) {
+            throw new IllegalArgumentException("Unknown parser mode " + mode);
+        }
+        return c;
+    }
+
+    // the ASCII character matched by the regex, such as ";", "[|]" or "\\|", or -1 if it's not a single character regex
+    static int singleCharacter(String regex) {
+        final String metaCharacters = ".$|()[]{}^?*+\\";
+        char c;
+        if (regex.length() == 1 && metaCharacters.indexOf(regex.charAt(0)) < 0) {
+            c = regex.charAt(0);
+        } else if (regex.length() == 2 && regex.charAt(0) == '\\' && metaCharacters.indexOf(regex.charAt(1)) >= 0) {
+            c = regex.charAt(1);
+        } else if (regex.length() == 3 && regex.charAt(0) == '[' && regex.charAt(2) == ']' && "^\\[]&-".indexOf(regex.charAt(1)) < 0) {
+            c = regex.charAt(1);
+        } else {
+            return -1;
         }
+        // ASCII bytes never occur within multi-byte characters, thus may be scanned
+        return c < 128 && c != '\n' && c != '\r' ? c : -1;
     }
 
     @Override
     public Contact readItem() throws Exception {
-        String line = br.readLine();
-        if (line != null) {
-            String[] fields = line.split(separatorRegex);
-            Contact contact = new Contact();
-            contact.setId(Integer.parseInt(fields[0]));
-            contact.setName(fields[1]);
-            contact.setPhone(fields[2]);
+        // the partition ends where the next starts
+        if (end >= 0 && records.position() >= end) {
+            return null;
+        }
+        if (records.nextLine()) {
+            Contact contact = separator < 0 ? parseWithRegex() : parseBytes();
             // update the checkpoint
-            checkpoint.increase();
+            checkpoint.increase(records.position());
             return contact;
         }
         return null;
     }
 
+    private Contact parseBytes() {
+        final byte[] line = records.buffer();
+        final int start = records.lineStart();
+        final int end = records.lineEnd();
+        final int idEnd = RecordsFile.indexOf(line, start, end, (byte) separator);
+        final int nameEnd = idEnd < 0 ? -1 : RecordsFile.indexOf(line, idEnd + 1, end, (byte) separator);
+        if (nameEnd < 0) {
+            throw new IllegalStateException("Invalid record at line " + (checkpoint.getLineNumber() + 1) + ": " + records.line(charset));
+        }
+        int phoneEnd = RecordsFile.indexOf(line, nameEnd + 1, end, (byte) separator);
+        if (phoneEnd < 0) {
+            phoneEnd = end;
+        }
+        Contact contact = new Contact();
+        contact.setId(RecordsFile.parseInt(line, start, idEnd));
+        contact.setName(new String(line, idEnd + 1, nameEnd - idEnd - 1, charset));
+        contact.setPhone(new String(line, nameEnd + 1, phoneEnd - nameEnd - 1, charset));
+        return contact;
+    }
+
+    private Contact parseWithRegex() {
+        String[] fields = separatorPattern.split(records.line(charset));
+        Contact contact = new Contact();
+        contact.setId(Integer.parseInt(fields[0]));
+        contact.setName(fields[1]);
+        contact.setPhone(fields[2]);
+        return contact;
+    }
+
     @Override
     public Serializable checkpointInfo() throws Exception {
         return checkpoint;
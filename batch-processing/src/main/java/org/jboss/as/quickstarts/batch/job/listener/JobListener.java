@@ -27,7 +27,10 @@ import jakarta.batch.runtime.context.JobContext;
 import jakarta.inject.Inject;
 import jakarta.inject.Named;
 
-//This listener modifies the Job to ABANDONED state if it was restarted once
+import org.jboss.as.quickstarts.batch.controller.JobHistory;
+
+//This listener modifies the Job to ABANDONED state if it was restarted once, and refreshes the
+//jobs list shown by the dashboard when a job starts or finishes
 @Named("jobListener")
 public class JobListener extends AbstractJobListener {
 
@@ -37,9 +40,13 @@ public class JobListener extends AbstractJobListener {
     @Inject
     private JobContext jobContext;
 
+    @Inject
+    private JobHistory jobHistory;
+
     @Override
     public void beforeJob() throws Exception {
         log.info(String.format("Job %s - Execution #%d starting.", jobContext.getJobName(), jobContext.getExecutionId()));
+        jobHistory.invalidate();
     }
 
     @Override
@@ -52,6 +59,7 @@ public class JobListener extends AbstractJobListener {
             jobOperator.abandon(jobContext.getExecutionId());
         }
         log.info(String.format("Job %s - Execution #%d finished. Status: %s", jobContext.getJobName(), jobContext.getExecutionId(), jobContext.getBatchStatus()));
+        jobHistory.invalidate();
     }
 
 }
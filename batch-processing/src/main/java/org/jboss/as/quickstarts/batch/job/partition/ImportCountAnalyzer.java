@@ -0,0 +1,55 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.job.partition;
+
+import java.io.Serializable;
+import java.util.logging.Logger;
+
+import jakarta.batch.api.partition.AbstractPartitionAnalyzer;
+import jakarta.batch.runtime.BatchStatus;
+import jakarta.batch.runtime.context.StepContext;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+
+//This analyzer runs on the step's thread, and adds the counts sent by the partitions' ImportCountCollector. The total is kept
+//in the step's persistent user data, so it survives restarts
+@Named("importCountAnalyzer")
+public class ImportCountAnalyzer extends AbstractPartitionAnalyzer {
+
+    @Inject
+    private StepContext stepContext;
+
+    @Inject
+    private Logger log;
+
+    @Override
+    public void analyzeCollectorData(Serializable data) throws Exception {
+        stepContext.setPersistentUserData(getImported(stepContext) + (Integer) data);
+    }
+
+    @Override
+    public void analyzeStatus(BatchStatus batchStatus, String exitStatus) throws Exception {
+        log.info("Partition finished. Status: " + batchStatus + ". Contacts imported so far: " + getImported(stepContext));
+    }
+
+    // the number of contacts imported by all partitions
+    static long getImported(StepContext stepContext) {
+        Long imported = (Long) stepContext.getPersistentUserData();
+        return imported == null ? 0 : imported;
+    }
+
+}
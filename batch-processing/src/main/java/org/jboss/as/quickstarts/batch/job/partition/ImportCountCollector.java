@@ -0,0 +1,41 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.job.partition;
+
+import java.io.Serializable;
+
+import jakarta.batch.api.partition.PartitionCollector;
+import jakarta.batch.runtime.context.StepContext;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+
+//This collector runs on each partition's thread after each chunk, and sends the number of contacts written to the ImportCountAnalyzer
+@Named("importCountCollector")
+public class ImportCountCollector implements PartitionCollector {
+
+    // the partition's step context, where the ContactsPersister counts the contacts written
+    @Inject
+    private StepContext stepContext;
+
+    @Override
+    public Serializable collectPartitionData() throws Exception {
+        Integer written = (Integer) stepContext.getTransientUserData();
+        stepContext.setTransientUserData(null);
+        return written == null ? 0 : written;
+    }
+
+}
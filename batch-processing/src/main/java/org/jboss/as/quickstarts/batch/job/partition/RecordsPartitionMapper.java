@@ -0,0 +1,94 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.job.partition;
+
+import java.io.File;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+import jakarta.batch.api.BatchProperty;
+import jakarta.batch.api.partition.PartitionMapper;
+import jakarta.batch.api.partition.PartitionPlan;
+import jakarta.batch.api.partition.PartitionPlanImpl;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+
+import org.jboss.as.quickstarts.batch.job.RecordsFile;
+
+//This mapper splits the file in byte ranges, one for each partition of the import step. Each range starts at a line start,
+//so each RecordsReader reads whole records
+@Named("recordsPartitionMapper")
+public class RecordsPartitionMapper implements PartitionMapper {
+
+    // the partition properties with the byte range, see import-file.xml
+    public static final String START_OFFSET = "startOffset";
+    public static final String END_OFFSET = "endOffset";
+
+    // Here you can inject a property defined in import-file.xml
+    @Inject
+    @BatchProperty
+    private String fileName;
+
+    // Here you can inject a property defined in import-file.xml
+    @Inject
+    @BatchProperty
+    private String partitions;
+
+    @Inject
+    private Logger log;
+
+    @Override
+    public PartitionPlan mapPartitions() throws Exception {
+        final int count = partitions == null || partitions.isEmpty() ? 1 : Integer.parseInt(partitions);
+        if (count < 1) {
+            throw new IllegalArgumentException("The number of partitions must be positive: " + count);
+        }
+        final Properties[] partitionProperties = new Properties[count];
+        try (FileChannel channel = FileChannel.open(new File(System.getProperty("java.io.tmpdir"), fileName).toPath(), StandardOpenOption.READ)) {
+            final long size = channel.size();
+            long start = 0;
+            for (int i = 0; i < count; i++) {
+                final long end = i == count - 1 ? size : lineStart(channel, Math.max(start, size * (i + 1) / count));
+                partitionProperties[i] = new Properties();
+                partitionProperties[i].setProperty(START_OFFSET, String.valueOf(start));
+                partitionProperties[i].setProperty(END_OFFSET, String.valueOf(end));
+                start = end;
+            }
+        }
+        log.info("Importing file " + fileName + " with " + count + " partition(s)");
+        final PartitionPlan plan = new PartitionPlanImpl();
+        plan.setPartitions(count);
+        plan.setThreads(count);
+        plan.setPartitionProperties(partitionProperties);
+        return plan;
+    }
+
+    // the offset of the first line starting at or after the specified offset, or the file size if there is none
+    private static long lineStart(FileChannel channel, long offset) throws Exception {
+        if (offset == 0 || offset >= channel.size()) {
+            return Math.min(offset, channel.size());
+        }
+        // read the line with the previous byte, the next line starts after it
+        channel.position(offset - 1);
+        final RecordsFile records = new RecordsFile(channel, 8192);
+        records.nextLine();
+        return records.position();
+    }
+
+}
@@ -0,0 +1,153 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2021, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.quickstarts.microprofile.reactive.messaging.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.sql.Timestamp;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.wildfly.quickstarts.microprofile.reactive.messaging.TimedEntry;
+import org.wildfly.quickstarts.microprofile.reactive.messaging.TimedEntryDeserializer;
+import org.wildfly.quickstarts.microprofile.reactive.messaging.TimedEntrySerializer;
+
+/**
+ * Benchmarks the {@link TimedEntrySerializer} and {@link TimedEntryDeserializer} binary format against the previous format,
+ * which wrote the entries with an {@link ObjectOutputStream}, and which the deserializer still reads.
+ *
+ * The results are the average time per record, of records with messages of {@code messageLength} ASCII characters. The
+ * setup prints the average size of the records in each format.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class TimedEntryCodecBenchmark {
+
+    private static final int RECORDS = 1024;
+
+    @Param({"5", "100", "1000"})
+    private int messageLength;
+
+    private TimedEntry[] entries;
+
+    private byte[][] binaryRecords;
+
+    private ByteBuffer[] binaryBuffers;
+
+    private byte[][] objectStreamRecords;
+
+    private TimedEntrySerializer serializer;
+
+    private TimedEntryDeserializer deserializer;
+
+    @Setup
+    public void setup() throws IOException {
+        final SplittableRandom random = new SplittableRandom(42);
+        serializer = new TimedEntrySerializer();
+        deserializer = new TimedEntryDeserializer();
+        entries = new TimedEntry[RECORDS];
+        binaryRecords = new byte[RECORDS][];
+        binaryBuffers = new ByteBuffer[RECORDS];
+        objectStreamRecords = new byte[RECORDS][];
+        long binaryBytes = 0;
+        long objectStreamBytes = 0;
+        for (int i = 0; i < RECORDS; i++) {
+            final char[] message = new char[messageLength];
+            for (int j = 0; j < message.length; j++) {
+                message[j] = (char) random.nextInt('a', 'z' + 1);
+            }
+            entries[i] = new TimedEntry(new Timestamp(System.currentTimeMillis()), new String(message));
+            binaryRecords[i] = serializer.serialize("testing", entries[i]);
+            binaryBuffers[i] = ByteBuffer.wrap(binaryRecords[i]);
+            objectStreamRecords[i] = serializeObjectStream(entries[i]);
+            binaryBytes += binaryRecords[i].length;
+            objectStreamBytes += objectStreamRecords[i].length;
+        }
+        System.out.printf("%nAverage record size: binary %d bytes, object stream %d bytes%n", binaryBytes / RECORDS, objectStreamBytes / RECORDS);
+    }
+
+    /**
+     * The previous TimedEntrySerializer.
+     */
+    private static byte[] serializeObjectStream(TimedEntry data) throws IOException {
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bout);
+        out.writeLong(data.getTime().getTime());
+        out.writeUTF(data.getMessage());
+        out.close();
+        return bout.toByteArray();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public void serializeBinary(Blackhole blackhole) {
+        for (int i = 0; i < RECORDS; i++) {
+            blackhole.consume(serializer.serialize("testing", entries[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public void serializeObjectStream(Blackhole blackhole) throws IOException {
+        for (int i = 0; i < RECORDS; i++) {
+            blackhole.consume(serializeObjectStream(entries[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public void deserializeBinary(Blackhole blackhole) {
+        for (int i = 0; i < RECORDS; i++) {
+            blackhole.consume(deserializer.deserialize("testing", binaryRecords[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public void deserializeBinaryBuffer(Blackhole blackhole) {
+        for (int i = 0; i < RECORDS; i++) {
+            blackhole.consume(deserializer.deserialize("testing", null, binaryBuffers[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public void deserializeObjectStream(Blackhole blackhole) {
+        for (int i = 0; i < RECORDS; i++) {
+            blackhole.consume(deserializer.deserialize("testing", objectStreamRecords[i]));
+        }
+    }
+}
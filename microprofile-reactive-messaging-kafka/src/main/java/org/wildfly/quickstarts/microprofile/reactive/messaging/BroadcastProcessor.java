@@ -0,0 +1,323 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2021, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.quickstarts.microprofile.reactive.messaging;
+
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.reactivestreams.Processor;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * A Reactive Streams {@link Processor} which multicasts the items received from a single upstream {@link org.reactivestreams.Publisher}
+ * to any number of subscribers.
+ *
+ * Each subscriber has its own buffer, bounded to {@code bufferSize} items, and receives items only as requested through its
+ * {@link Subscription#request(long)}. The upstream is never held back by a slow subscriber, instead once a subscriber's buffer
+ * is full the {@link Overflow} policy decides what happens to the items it did not request yet.
+ *
+ * @param <T> the type of the items
+ */
+public class BroadcastProcessor<T> implements Processor<T, T> {
+
+    /**
+     * What happens when an item is received and a subscriber's buffer is full.
+     */
+    public enum Overflow {
+        /**
+         * The item is not delivered to the subscriber.
+         */
+        DROP,
+        /**
+         * The oldest item in the buffer is discarded, so the subscriber gets the latest items once it requests more.
+         */
+        LATEST,
+        /**
+         * The subscription is cancelled and the subscriber receives an {@link IllegalStateException}.
+         */
+        ERROR
+    }
+
+    private final int bufferSize;
+    private final Overflow overflow;
+    private final AtomicReference<Subscription> upstream = new AtomicReference<>();
+    private final Set<BroadcastSubscription> subscriptions = ConcurrentHashMap.newKeySet();
+    // the upstream's terminal signal, COMPLETED or the error received
+    private volatile Throwable terminated;
+
+    private static final Throwable COMPLETED = new Throwable("completed", null, false, false) {
+    };
+
+    public BroadcastProcessor(int bufferSize, Overflow overflow) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("The buffer size must be positive. Instead it is " + bufferSize);
+        }
+        this.bufferSize = bufferSize;
+        this.overflow = Objects.requireNonNull(overflow);
+    }
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+        Objects.requireNonNull(subscription);
+        if (!upstream.compareAndSet(null, subscription)) {
+            // rule 2.5, only one upstream subscription
+            subscription.cancel();
+            return;
+        }
+        // the per subscriber buffers absorb the rate differences, thus the upstream is never held back
+        subscription.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(T item) {
+        Objects.requireNonNull(item);
+        for (BroadcastSubscription subscription : subscriptions) {
+            subscription.offer(item);
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        Objects.requireNonNull(throwable);
+        terminate(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        terminate(COMPLETED);
+    }
+
+    private void terminate(Throwable signal) {
+        if (terminated != null) {
+            return;
+        }
+        terminated = signal;
+        for (BroadcastSubscription subscription : subscriptions) {
+            subscription.terminate(signal);
+        }
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber);
+        final BroadcastSubscription subscription = new BroadcastSubscription(subscriber);
+        try {
+            subscriber.onSubscribe(subscription);
+        } catch (Throwable t) {
+            // rule 2.13, a subscriber which throws is considered cancelled
+            subscription.cancel();
+            return;
+        }
+        // added only once onSubscribe returned, so items are never signalled concurrently with it
+        subscriptions.add(subscription);
+        if (subscription.cancelled || subscription.done != null) {
+            subscriptions.remove(subscription);
+            return;
+        }
+        // the upstream may have terminated before the subscription was added, and then it was not notified
+        final Throwable signal = terminated;
+        if (signal != null) {
+            subscription.terminate(signal);
+        }
+    }
+
+    /**
+     * @return the number of active subscriptions
+     */
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * Cancels the upstream subscription, and completes all subscribers once they received their buffered items.
+     */
+    public void close() {
+        final Subscription subscription = upstream.getAndSet(CANCELLED);
+        if (subscription != null && subscription != CANCELLED) {
+            subscription.cancel();
+        }
+        terminate(COMPLETED);
+    }
+
+    private static final Subscription CANCELLED = new Subscription() {
+        @Override
+        public void request(long n) {
+        }
+
+        @Override
+        public void cancel() {
+        }
+    };
+
+    private class BroadcastSubscription implements Subscription {
+        private final Subscriber<? super T> subscriber;
+        // guarded by itself, items are offered by the upstream thread and polled by the thread draining
+        private final ArrayDeque<T> buffer = new ArrayDeque<>();
+        private final AtomicLong requested = new AtomicLong();
+        // serializes the signals to the subscriber, only the thread which increments it from 0 drains
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile Throwable done;
+        private volatile boolean cancelled;
+
+        BroadcastSubscription(Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        void offer(T item) {
+            boolean overflowed = false;
+            synchronized (buffer) {
+                if (done != null) {
+                    return;
+                }
+                if (buffer.size() < bufferSize) {
+                    buffer.offer(item);
+                } else {
+                    switch (overflow) {
+                        case DROP:
+                            return;
+                        case LATEST:
+                            buffer.poll();
+                            buffer.offer(item);
+                            break;
+                        default:
+                            buffer.clear();
+                            overflowed = true;
+                    }
+                }
+            }
+            if (overflowed) {
+                terminate(new IllegalStateException("More than " + bufferSize + " items were received before the subscriber requested them"));
+            } else {
+                drain();
+            }
+        }
+
+        /**
+         * Sets the terminal signal, which for an error is delivered right away, discarding the buffered items.
+         * @param signal COMPLETED or the error
+         */
+        void terminate(Throwable signal) {
+            synchronized (buffer) {
+                if (done != null) {
+                    return;
+                }
+                done = signal;
+                if (signal != COMPLETED) {
+                    buffer.clear();
+                }
+            }
+            if (signal != COMPLETED) {
+                subscriptions.remove(this);
+            }
+            drain();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                // rule 3.9
+                terminate(new IllegalArgumentException("The number of requested items must be positive. Instead it is " + n));
+                return;
+            }
+            long current;
+            long next;
+            do {
+                current = requested.get();
+                if (current == Long.MAX_VALUE) {
+                    return;
+                }
+                next = current + n;
+                if (next < 0) {
+                    next = Long.MAX_VALUE;
+                }
+            } while (!requested.compareAndSet(current, next));
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+            synchronized (buffer) {
+                buffer.clear();
+            }
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                final long r = requested.get();
+                long emitted = 0;
+                while (emitted != r && !cancelled) {
+                    final T item;
+                    synchronized (buffer) {
+                        item = buffer.poll();
+                    }
+                    if (item == null) {
+                        break;
+                    }
+                    try {
+                        subscriber.onNext(item);
+                    } catch (Throwable t) {
+                        // rule 2.13, a subscriber which throws is considered cancelled, and neither the upstream,
+                        // which is the thread usually draining, nor the other subscribers are affected
+                        cancel();
+                        return;
+                    }
+                    emitted++;
+                }
+                if (cancelled) {
+                    return;
+                }
+                final Throwable signal = done;
+                if (signal != null) {
+                    final boolean empty;
+                    synchronized (buffer) {
+                        empty = buffer.isEmpty();
+                    }
+                    if (empty || signal != COMPLETED) {
+                        cancelled = true;
+                        subscriptions.remove(this);
+                        try {
+                            if (signal == COMPLETED) {
+                                subscriber.onComplete();
+                            } else {
+                                subscriber.onError(signal);
+                            }
+                        } catch (Throwable ignored) {
+                            // rule 2.13, the subscription is already cancelled
+                        }
+                        return;
+                    }
+                }
+                if (emitted != 0 && r != Long.MAX_VALUE) {
+                    requested.addAndGet(-emitted);
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
+}
@@ -16,6 +16,7 @@
  */
 package org.wildfly.quickstarts.microprofile.reactive.messaging;
 
+import java.sql.Timestamp;
 import java.util.List;
 
 import jakarta.enterprise.context.ApplicationScoped;
@@ -34,14 +35,73 @@ public class DatabaseBean {
     @PersistenceContext(unitName = "test")
     EntityManager em;
 
+    // the same as the hibernate.jdbc.batch_size in persistence.xml, also used as the page size when streaming
+    static final int BATCH_SIZE = 50;
+
     @Transactional
     public void store(Object entry) {
         em.persist(entry);
     }
 
-    public List<TimedEntry> loadAllTimedEntries() {
-        TypedQuery<TimedEntry> query = em.createQuery("SELECT t from TimedEntry t", TimedEntry.class);
-        List<TimedEntry> result = query.getResultList();
-        return result;
+    /**
+     * Persists the entries in a single transaction, flushing them to the database as JDBC batches.
+     * @param entries
+     */
+    @Transactional
+    public void storeAll(List<?> entries) {
+        for (int i = 0; i < entries.size(); i++) {
+            em.persist(entries.get(i));
+            if ((i + 1) % BATCH_SIZE == 0) {
+                // send the batch and detach its entries, so the persistence context does not grow with the transaction
+                em.flush();
+                em.clear();
+            }
+        }
+    }
+
+    /**
+     * Loads a page of the entries, ordered by id, using the last id of the previous page as the key to continue from,
+     * so every page is read through the primary key index, no matter how many entries precede it. Each page is loaded in
+     * its own short transaction.
+     * @param after the id of the last entry of the previous page, or {@code null} for the first page
+     * @param from the minimum time, inclusive, or {@code null}
+     * @param to the maximum time, exclusive, or {@code null}
+     * @param limit the maximum number of entries
+     * @return
+     */
+    @Transactional
+    public List<TimedEntry> loadTimedEntries(Long after, Timestamp from, Timestamp to, int limit) {
+        TypedQuery<TimedEntry> query = createTimedEntriesQuery(after, from, to);
+        query.setMaxResults(limit);
+        return query.getResultList();
+    }
+
+    private TypedQuery<TimedEntry> createTimedEntriesQuery(Long after, Timestamp from, Timestamp to) {
+        StringBuilder jpql = new StringBuilder("SELECT t FROM TimedEntry t");
+        String separator = " WHERE ";
+        if (after != null) {
+            jpql.append(separator).append("t.id > :after");
+            separator = " AND ";
+        }
+        // the time range conditions use the index on the time column
+        if (from != null) {
+            jpql.append(separator).append("t.time >= :from");
+            separator = " AND ";
+        }
+        if (to != null) {
+            jpql.append(separator).append("t.time < :to");
+        }
+        jpql.append(" ORDER BY t.id");
+        TypedQuery<TimedEntry> query = em.createQuery(jpql.toString(), TimedEntry.class);
+        if (after != null) {
+            query.setParameter("after", after);
+        }
+        if (from != null) {
+            query.setParameter("from", from);
+        }
+        if (to != null) {
+            query.setParameter("to", to);
+        }
+        return query;
     }
 }
\ No newline at end of file
@@ -17,6 +17,7 @@
 package org.wildfly.quickstarts.microprofile.reactive.messaging;
 
 import java.sql.Timestamp;
+import java.util.List;
 import java.util.concurrent.CompletionStage;
 
 import jakarta.enterprise.context.ApplicationScoped;
@@ -27,7 +28,6 @@ import org.eclipse.microprofile.reactive.messaging.Message;
 import org.eclipse.microprofile.reactive.messaging.Outgoing;
 import org.eclipse.microprofile.reactive.streams.operators.PublisherBuilder;
 
-import io.smallrye.reactive.messaging.kafka.api.IncomingKafkaRecordMetadata;
 import io.smallrye.reactive.messaging.kafka.api.KafkaMetadataUtil;
 import io.smallrye.reactive.messaging.kafka.api.OutgoingKafkaRecordMetadata;
 
@@ -88,19 +88,12 @@ public class MessagingBean {
     }
 
     @Incoming("from-kafka")
-    public CompletionStage<Void> receiveFromKafka(Message<TimedEntry> message) {
+    public CompletionStage<Void> receiveFromKafka(Message<List<TimedEntry>> message) {
         try {
-            TimedEntry payload = message.getPayload();
-            System.out.println("TEMP (receiveFromKafka) " + payload);
-
-            IncomingKafkaRecordMetadata<Integer, TimedEntry> md = KafkaMetadataUtil.readIncomingKafkaMetadata(message).get();
-            String msg =
-                    "Received from Kafka, storing it in database\n" +
-                    "\t%s\n" +
-                    "\tkey: %d; partition: %d, topic: %s";
-            msg = String.format(msg, payload, md.getKey(), md.getPartition(), md.getTopic());
-            System.out.println(msg);
-            dbBean.store(payload);
+            List<TimedEntry> payload = message.getPayload();
+            System.out.println("Received " + payload.size() + " entries from Kafka, storing them in database");
+            dbBean.storeAll(payload);
+            // the offsets of the whole batch are committed only once it was persisted
             return message.ack();
         } catch (Exception e) {
             e.printStackTrace();
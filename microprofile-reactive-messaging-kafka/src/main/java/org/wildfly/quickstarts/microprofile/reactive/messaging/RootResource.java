@@ -16,13 +16,27 @@
  */
 package org.wildfly.quickstarts.microprofile.reactive.messaging;
 
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 
 import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import jakarta.ws.rs.core.UriInfo;
 
 @Path("/")
 public class RootResource {
@@ -30,17 +44,79 @@ public class RootResource {
     @Inject
     DatabaseBean dbBean;
 
+    // the maximum number of entries of a /db page
+    private static final int MAX_LIMIT = 1000;
+
+    /**
+     * Returns the entries stored, one per line. By default all the entries are returned, and written to the response as
+     * these are fetched from the database, a page at a time. With the limit parameter only a page of entries is returned, and the response's
+     * next link, if any, points to the next page.
+     * @param from the minimum time of the entries, inclusive, e.g. 2021-08-06T14:24:39
+     * @param to the maximum time of the entries, exclusive
+     * @param after the id of the last entry of the previous page
+     * @param limit the maximum number of entries of the page
+     * @param uriInfo
+     * @return
+     */
     @GET
     @Path("/db")
     @Produces(MediaType.TEXT_PLAIN)
-    public String getDatabaseEntries() {
-        List<TimedEntry> entries = dbBean.loadAllTimedEntries();
-        StringBuffer sb = new StringBuffer();
+    public Response getDatabaseEntries(@QueryParam("from") String from, @QueryParam("to") String to,
+                                       @QueryParam("after") Long after, @QueryParam("limit") Integer limit,
+                                       @Context UriInfo uriInfo) {
+        final Timestamp fromTime = parseTime("from", from);
+        final Timestamp toTime = parseTime("to", to);
+        if (limit == null) {
+            if (after != null) {
+                throw new BadRequestException("The after parameter requires the limit parameter");
+            }
+            StreamingOutput output = out -> {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+                // the entries are loaded in pages, each in its own short transaction, so no transaction, nor database
+                // connection, is held while the entries are written to a slow client
+                List<TimedEntry> entries;
+                Long last = null;
+                do {
+                    entries = dbBean.loadTimedEntries(last, fromTime, toTime, DatabaseBean.BATCH_SIZE);
+                    for (TimedEntry t : entries) {
+                        writer.write(t.toString());
+                        writer.write('\n');
+                        last = t.getId();
+                    }
+                } while (entries.size() == DatabaseBean.BATCH_SIZE);
+                writer.flush();
+            };
+            return Response.ok(output).build();
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BadRequestException("The limit must be between 1 and " + MAX_LIMIT + ". Instead it is " + limit);
+        }
+        List<TimedEntry> entries = dbBean.loadTimedEntries(after, fromTime, toTime, limit);
+        StringBuilder sb = new StringBuilder();
         for (TimedEntry t : entries) {
             sb.append(t);
             sb.append("\n");
         }
-        return sb.toString();
+        Response.ResponseBuilder response = Response.ok(sb.toString());
+        if (entries.size() == limit) {
+            // the keyset of the next page is the id of the last entry
+            URI next = uriInfo.getRequestUriBuilder()
+                    .replaceQueryParam("after", entries.get(entries.size() - 1).getId())
+                    .build();
+            response.link(next, "next");
+        }
+        return response.build();
+    }
+
+    private static Timestamp parseTime(String name, String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Timestamp.valueOf(LocalDateTime.parse(value));
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException("The " + name + " parameter must be a date and time such as 2021-08-06T14:24:39. Instead it is " + value);
+        }
     }
 
     @GET
@@ -21,11 +21,15 @@ import java.sql.Timestamp;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 
 /**
  * @author <a href="mailto:kabir.khan@jboss.com">Kabir Khan</a>
  */
 @Entity
+// the /db time range queries use this index
+@Table(indexes = @Index(name = "TimedEntry_time", columnList = "time"))
 public class TimedEntry {
     private Long id;
     private Timestamp time;
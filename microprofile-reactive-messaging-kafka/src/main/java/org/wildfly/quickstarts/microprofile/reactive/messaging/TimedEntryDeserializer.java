@@ -19,11 +19,19 @@ package org.wildfly.quickstarts.microprofile.reactive.messaging;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
+import java.io.ObjectStreamConstants;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.sql.Timestamp;
 
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
 import org.apache.kafka.common.serialization.Deserializer;
 
 /**
+ * Deserializes the {@link TimedEntry} records written by the {@link TimedEntrySerializer}, and the ones written
+ * by its previous versions, which used an {@link java.io.ObjectOutputStream}.
+ *
  * @author <a href="mailto:kabir.khan@jboss.com">Kabir Khan</a>
  */
 public class TimedEntryDeserializer implements Deserializer<TimedEntry> {
@@ -33,7 +41,61 @@ public class TimedEntryDeserializer implements Deserializer<TimedEntry> {
         if (data == null) {
             return null;
         }
-        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(data))){
+        return deserialize(ByteBuffer.wrap(data));
+    }
+
+    @Override
+    public TimedEntry deserialize(String topic, Headers headers, ByteBuffer data) {
+        // the consumer may hand the record's bytes without copying them to an array
+        if (data == null) {
+            return null;
+        }
+        return deserialize(data);
+    }
+
+    private TimedEntry deserialize(ByteBuffer data) {
+        // absolute reads, the position of the buffer is left unchanged
+        final int start = data.position();
+        if (data.remaining() >= 2 && data.getShort(start) == ObjectStreamConstants.STREAM_MAGIC) {
+            return deserializeObjectStream(data);
+        }
+        if (data.remaining() < TimedEntrySerializer.HEADER_LENGTH) {
+            throw new SerializationException("Truncated TimedEntry record of " + data.remaining() + " bytes");
+        }
+        final byte version = data.get(start);
+        if (version != TimedEntrySerializer.VERSION) {
+            throw new SerializationException("Unknown TimedEntry format version " + version);
+        }
+        final Timestamp time = new Timestamp(data.getLong(start + 1));
+        final int length = data.getInt(start + 1 + Long.BYTES);
+        final int offset = start + TimedEntrySerializer.HEADER_LENGTH;
+        if (length < -1) {
+            // only -1, a null message, may be negative
+            throw new SerializationException("Invalid TimedEntry record, the message has " + length + " bytes");
+        }
+        if (length > data.limit() - offset) {
+            throw new SerializationException("Truncated TimedEntry record, the message has " + length + " bytes");
+        }
+        final String message;
+        if (length == -1) {
+            message = null;
+        } else if (data.hasArray()) {
+            message = new String(data.array(), data.arrayOffset() + offset, length, StandardCharsets.UTF_8);
+        } else {
+            final byte[] utf8 = new byte[length];
+            data.duplicate().position(offset).get(utf8);
+            message = new String(utf8, StandardCharsets.UTF_8);
+        }
+        return new TimedEntry(time, message);
+    }
+
+    /**
+     * Reads a record written in the format of the previous versions, which may still be in the topic.
+     */
+    private TimedEntry deserializeObjectStream(ByteBuffer data) {
+        final byte[] bytes = new byte[data.remaining()];
+        data.duplicate().get(bytes);
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))){
             Timestamp time = new Timestamp(in.readLong());
             String message = in.readUTF();
             return new TimedEntry(time, message);
@@ -16,33 +16,46 @@
  */
 package org.wildfly.quickstarts.microprofile.reactive.messaging;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 
 import org.apache.kafka.common.serialization.Serializer;
 
 /**
+ * Serializes a {@link TimedEntry} with a fixed layout:
+ * <ul>
+ *     <li>the format version, a byte</li>
+ *     <li>the time in milliseconds since the epoch, a long</li>
+ *     <li>the length of the UTF-8 encoded message, an int, which is -1 for a null message</li>
+ *     <li>the UTF-8 encoded message</li>
+ * </ul>
+ * The {@link TimedEntryDeserializer} reads the version first, so it can still read the records written in older formats.
+ *
  * @author <a href="mailto:kabir.khan@jboss.com">Kabir Khan</a>
  */
 public class TimedEntrySerializer implements Serializer<TimedEntry> {
+
+    static final byte VERSION = 1;
+    // the length of the version, time and message length fields
+    static final int HEADER_LENGTH = 1 + Long.BYTES + Integer.BYTES;
+
     @Override
     public byte[] serialize(String topic, TimedEntry data) {
         if (data == null) {
             return null;
         }
-
-        try {
-            ByteArrayOutputStream bout = new ByteArrayOutputStream();
-            ObjectOutputStream out = new ObjectOutputStream(bout);
-            out.writeLong(data.getTime().getTime());
-            out.writeUTF(data.getMessage());
-            out.close();
-            return bout.toByteArray();
-        } catch (IOException e) {
-            e.printStackTrace();
-            throw new RuntimeException(e);
+        final String message = data.getMessage();
+        final byte[] utf8 = message != null ? message.getBytes(StandardCharsets.UTF_8) : null;
+        // the record is written once, directly into the array handed to the producer
+        final ByteBuffer buffer = ByteBuffer.allocate(HEADER_LENGTH + (utf8 != null ? utf8.length : 0));
+        buffer.put(VERSION);
+        buffer.putLong(data.getTime().getTime());
+        if (utf8 != null) {
+            buffer.putInt(utf8.length);
+            buffer.put(utf8);
+        } else {
+            buffer.putInt(-1);
         }
-
+        return buffer.array();
     }
 }
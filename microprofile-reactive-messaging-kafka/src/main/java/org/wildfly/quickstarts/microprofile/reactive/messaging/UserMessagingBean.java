@@ -16,18 +16,15 @@
  */
 package org.wildfly.quickstarts.microprofile.reactive.messaging;
 
-import java.util.concurrent.CopyOnWriteArraySet;
-
 import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.core.Response;
 
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.reactive.messaging.Channel;
 import org.eclipse.microprofile.reactive.messaging.Emitter;
 import org.reactivestreams.Publisher;
-import org.reactivestreams.Subscriber;
-import org.reactivestreams.Subscription;
 
 @ApplicationScoped
 public class UserMessagingBean {
@@ -36,7 +33,7 @@ public class UserMessagingBean {
     @Channel("user")
     private Emitter<String> emitter;
 
-    private BroadcastPublisher<String> broadcastPublisher;
+    private BroadcastProcessor<String> broadcastProcessor;
 
     public UserMessagingBean() {
         //Needed for CDI spec compliance
@@ -44,13 +41,16 @@ public class UserMessagingBean {
     }
 
     @Inject
-    public UserMessagingBean(@Channel("user") Publisher<String> receiver) {
-        this.broadcastPublisher = new BroadcastPublisher(receiver);
+    public UserMessagingBean(@Channel("user") Publisher<String> receiver,
+                             @ConfigProperty(name = "user.broadcast.buffer-size", defaultValue = "256") int bufferSize,
+                             @ConfigProperty(name = "user.broadcast.overflow", defaultValue = "LATEST") BroadcastProcessor.Overflow overflow) {
+        this.broadcastProcessor = new BroadcastProcessor<>(bufferSize, overflow);
+        receiver.subscribe(broadcastProcessor);
     }
 
     @PreDestroy
     public void destroy() {
-        broadcastPublisher.close();
+        broadcastProcessor.close();
     }
 
     public Response send(String value) {
@@ -60,71 +60,6 @@ public class UserMessagingBean {
     }
 
     public Publisher<String> getPublisher() {
-        return broadcastPublisher;
-    }
-
-    private class BroadcastPublisher<T> implements Publisher<T> {
-        private final Publisher basePublisher;
-        private volatile Subscription baseSubscription;
-        private final CopyOnWriteArraySet<Subscriber<? super T>> subscribers = new CopyOnWriteArraySet<>();
-
-        BroadcastPublisher(Publisher<T> publisher) {
-            this.basePublisher = publisher;
-            publisher.subscribe(new Subscriber() {
-                @Override
-                public void onSubscribe(Subscription subscription) {
-                    baseSubscription = subscription;
-                    subscription.request(1);
-                }
-
-                @Override
-                public void onNext(Object o) {
-                    System.out.println("Received " + o + " - forwarding it to all the subscribers");
-                    for (Subscriber s : subscribers) {
-                        s.onNext(o);
-                    }
-                    baseSubscription.request(1);
-                }
-
-                @Override
-                public void onError(Throwable throwable) {
-                    throwable.printStackTrace();
-                    for (Subscriber s : subscribers) {
-                        s.onNext(throwable);
-                    }
-                }
-
-                @Override
-                public void onComplete() {
-                    for (Subscriber s : subscribers) {
-                        s.onComplete();
-                    }
-                    baseSubscription.cancel();
-                }
-            });
-        }
-
-        @Override
-        public void subscribe(Subscriber<? super T> subscriber) {
-            subscribers.add(subscriber);
-            subscriber.onSubscribe(new Subscription() {
-                @Override
-                public void request(long l) {
-                    if (l != 1) {
-                        throw new IllegalArgumentException("You can only request one entry. Instead you requested " + l);
-                    }
-                }
-
-                @Override
-                public void cancel() {
-                    subscribers.remove(subscriber);
-                }
-            });
-        }
-
-        void close() {
-            baseSubscription.cancel();
-            subscribers.removeAll(subscribers);
-        }
+        return broadcastProcessor;
     }
 }
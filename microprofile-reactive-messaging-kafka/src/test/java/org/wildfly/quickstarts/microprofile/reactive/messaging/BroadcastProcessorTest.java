@@ -0,0 +1,249 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2021, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.quickstarts.microprofile.reactive.messaging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+public class BroadcastProcessorTest {
+
+    @Test
+    public void testUpstreamRequestedOnce() {
+        BroadcastProcessor<Integer> processor = new BroadcastProcessor<>(4, BroadcastProcessor.Overflow.LATEST);
+        UpstreamSubscription upstream = new UpstreamSubscription();
+        processor.onSubscribe(upstream);
+        assertEquals(Long.MAX_VALUE, upstream.requested);
+        UpstreamSubscription second = new UpstreamSubscription();
+        processor.onSubscribe(second);
+        assertTrue(second.cancelled);
+        assertFalse(upstream.cancelled);
+    }
+
+    @Test
+    public void testItemsDeliveredAsRequested() {
+        BroadcastProcessor<Integer> processor = new BroadcastProcessor<>(8, BroadcastProcessor.Overflow.ERROR);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        processor.subscribe(subscriber);
+        subscriber.request(2);
+        publish(processor, 1, 2, 3, 4, 5);
+        assertEquals(Arrays.asList(1, 2), subscriber.items);
+        subscriber.request(1);
+        assertEquals(Arrays.asList(1, 2, 3), subscriber.items);
+        subscriber.request(Long.MAX_VALUE);
+        publish(processor, 6);
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6), subscriber.items);
+        assertFalse(subscriber.completed);
+        assertNull(subscriber.error);
+    }
+
+    @Test
+    public void testNonPositiveRequest() {
+        BroadcastProcessor<Integer> processor = new BroadcastProcessor<>(8, BroadcastProcessor.Overflow.ERROR);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        processor.subscribe(subscriber);
+        subscriber.request(0);
+        assertTrue(subscriber.error instanceof IllegalArgumentException);
+        assertEquals(0, processor.getSubscriberCount());
+    }
+
+    @Test
+    public void testOverflowDrop() {
+        assertEquals(Arrays.asList(1, 2), overflow(BroadcastProcessor.Overflow.DROP).items);
+    }
+
+    @Test
+    public void testOverflowLatest() {
+        assertEquals(Arrays.asList(3, 4), overflow(BroadcastProcessor.Overflow.LATEST).items);
+    }
+
+    @Test
+    public void testOverflowError() {
+        RecordingSubscriber subscriber = overflow(BroadcastProcessor.Overflow.ERROR);
+        assertTrue(subscriber.items.isEmpty());
+        assertTrue(subscriber.error instanceof IllegalStateException);
+    }
+
+    // publishes 4 items to a subscriber with a buffer of 2 items, which then requests all
+    private static RecordingSubscriber overflow(BroadcastProcessor.Overflow overflow) {
+        BroadcastProcessor<Integer> processor = new BroadcastProcessor<>(2, overflow);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        processor.subscribe(subscriber);
+        publish(processor, 1, 2, 3, 4);
+        subscriber.request(Long.MAX_VALUE);
+        return subscriber;
+    }
+
+    @Test
+    public void testCancel() {
+        BroadcastProcessor<Integer> processor = new BroadcastProcessor<>(8, BroadcastProcessor.Overflow.ERROR);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        processor.subscribe(subscriber);
+        subscriber.request(Long.MAX_VALUE);
+        publish(processor, 1);
+        subscriber.subscription.cancel();
+        assertEquals(0, processor.getSubscriberCount());
+        publish(processor, 2);
+        processor.onComplete();
+        assertEquals(Arrays.asList(1), subscriber.items);
+        assertFalse(subscriber.completed);
+    }
+
+    @Test
+    public void testCompleteAfterBufferedItems() {
+        BroadcastProcessor<Integer> processor = new BroadcastProcessor<>(8, BroadcastProcessor.Overflow.ERROR);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        processor.subscribe(subscriber);
+        publish(processor, 1, 2);
+        processor.onComplete();
+        assertFalse(subscriber.completed);
+        subscriber.request(1);
+        assertFalse(subscriber.completed);
+        subscriber.request(1);
+        assertEquals(Arrays.asList(1, 2), subscriber.items);
+        assertTrue(subscriber.completed);
+    }
+
+    @Test
+    public void testErrorDiscardsBufferedItems() {
+        BroadcastProcessor<Integer> processor = new BroadcastProcessor<>(8, BroadcastProcessor.Overflow.ERROR);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        processor.subscribe(subscriber);
+        publish(processor, 1, 2);
+        RuntimeException error = new RuntimeException();
+        processor.onError(error);
+        assertTrue(subscriber.items.isEmpty());
+        assertEquals(error, subscriber.error);
+    }
+
+    @Test
+    public void testLateSubscribe() {
+        BroadcastProcessor<Integer> processor = new BroadcastProcessor<>(8, BroadcastProcessor.Overflow.ERROR);
+        RecordingSubscriber early = new RecordingSubscriber();
+        processor.subscribe(early);
+        early.request(Long.MAX_VALUE);
+        publish(processor, 1);
+        RecordingSubscriber late = new RecordingSubscriber();
+        processor.subscribe(late);
+        late.request(Long.MAX_VALUE);
+        publish(processor, 2);
+        assertEquals(Arrays.asList(1, 2), early.items);
+        assertEquals(Arrays.asList(2), late.items);
+        processor.onComplete();
+        RecordingSubscriber afterComplete = new RecordingSubscriber();
+        processor.subscribe(afterComplete);
+        assertTrue(afterComplete.items.isEmpty());
+        assertTrue(afterComplete.completed);
+        assertEquals(0, processor.getSubscriberCount());
+    }
+
+    @Test
+    public void testThrowingSubscriberIsCancelled() {
+        BroadcastProcessor<Integer> processor = new BroadcastProcessor<>(8, BroadcastProcessor.Overflow.ERROR);
+        RecordingSubscriber throwing = new RecordingSubscriber() {
+            @Override
+            public void onNext(Integer item) {
+                super.onNext(item);
+                throw new IllegalStateException();
+            }
+        };
+        RecordingSubscriber other = new RecordingSubscriber();
+        processor.subscribe(throwing);
+        processor.subscribe(other);
+        throwing.request(Long.MAX_VALUE);
+        other.request(Long.MAX_VALUE);
+        publish(processor, 1, 2);
+        processor.onComplete();
+        assertEquals(Arrays.asList(1), throwing.items);
+        assertFalse(throwing.completed);
+        assertEquals(Arrays.asList(1, 2), other.items);
+        assertTrue(other.completed);
+    }
+
+    @Test
+    public void testCloseCancelsUpstream() {
+        BroadcastProcessor<Integer> processor = new BroadcastProcessor<>(8, BroadcastProcessor.Overflow.ERROR);
+        UpstreamSubscription upstream = new UpstreamSubscription();
+        processor.onSubscribe(upstream);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        processor.subscribe(subscriber);
+        processor.close();
+        assertTrue(upstream.cancelled);
+        assertTrue(subscriber.completed);
+    }
+
+    private static void publish(BroadcastProcessor<Integer> processor, Integer... items) {
+        for (Integer item : items) {
+            processor.onNext(item);
+        }
+    }
+
+    private static class UpstreamSubscription implements Subscription {
+        private long requested;
+        private boolean cancelled;
+
+        @Override
+        public void request(long n) {
+            requested += n;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+
+    private static class RecordingSubscriber implements Subscriber<Integer> {
+        private final List<Integer> items = new ArrayList<>();
+        private Subscription subscription;
+        private boolean completed;
+        private Throwable error;
+
+        void request(long n) {
+            subscription.request(n);
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(Integer item) {
+            items.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2021, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.quickstarts.microprofile.reactive.messaging;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.sql.Timestamp;
+import java.util.Arrays;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.Test;
+
+public class TimedEntryCodecTest {
+
+    private final TimedEntrySerializer serializer = new TimedEntrySerializer();
+
+    private final TimedEntryDeserializer deserializer = new TimedEntryDeserializer();
+
+    @Test
+    public void testRoundTrip() {
+        assertRoundTrip(new TimedEntry(new Timestamp(1628259879000L), "Hello"));
+        assertRoundTrip(new TimedEntry(new Timestamp(0), ""));
+        assertRoundTrip(new TimedEntry(new Timestamp(-1), "Gr\u00fc\u00dfe, \u4e16\u754c \ud83d\ude80"));
+        assertRoundTrip(new TimedEntry(new Timestamp(Long.MAX_VALUE), null));
+        char[] chars = new char[70000];
+        Arrays.fill(chars, 'k');
+        assertRoundTrip(new TimedEntry(new Timestamp(42), new String(chars)));
+    }
+
+    @Test
+    public void testLayout() {
+        byte[] data = serializer.serialize("t", new TimedEntry(new Timestamp(1), "Kafka"));
+        ByteBuffer expected = ByteBuffer.allocate(TimedEntrySerializer.HEADER_LENGTH + 5)
+                .put(TimedEntrySerializer.VERSION)
+                .putLong(1)
+                .putInt(5)
+                .put(new byte[] {'K', 'a', 'f', 'k', 'a'});
+        assertArrayEquals(expected.array(), data);
+    }
+
+    @Test
+    public void testNull() {
+        assertNull(serializer.serialize("t", null));
+        assertNull(deserializer.deserialize("t", null));
+        assertNull(deserializer.deserialize("t", null, (ByteBuffer) null));
+    }
+
+    @Test
+    public void testDirectBuffer() {
+        TimedEntry entry = new TimedEntry(new Timestamp(1628259879000L), "Kafka");
+        byte[] data = serializer.serialize("t", entry);
+        // the record in the middle of a direct buffer, as a slice of a fetched batch
+        ByteBuffer buffer = ByteBuffer.allocateDirect(data.length + 8);
+        buffer.position(4);
+        buffer.put(data);
+        buffer.position(4).limit(4 + data.length);
+        assertEntryEquals(entry, deserializer.deserialize("t", null, buffer));
+        assertEquals(4, buffer.position());
+        assertEntryEquals(entry, deserializer.deserialize("t", null, buffer.slice()));
+    }
+
+    @Test
+    public void testLegacyFormat() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeLong(1628259879000L);
+            out.writeUTF("Hello");
+        }
+        TimedEntry entry = new TimedEntry(new Timestamp(1628259879000L), "Hello");
+        assertEntryEquals(entry, deserializer.deserialize("t", bytes.toByteArray()));
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.size());
+        direct.put(bytes.toByteArray()).flip();
+        assertEntryEquals(entry, deserializer.deserialize("t", null, direct));
+    }
+
+    @Test
+    public void testTruncated() {
+        byte[] data = serializer.serialize("t", new TimedEntry(new Timestamp(1), "Kafka"));
+        assertInvalid(Arrays.copyOf(data, data.length - 1));
+        assertInvalid(Arrays.copyOf(data, TimedEntrySerializer.HEADER_LENGTH - 1));
+    }
+
+    @Test
+    public void testInvalid() {
+        ByteBuffer unknownVersion = ByteBuffer.allocate(TimedEntrySerializer.HEADER_LENGTH)
+                .put((byte) (TimedEntrySerializer.VERSION + 1))
+                .putLong(1)
+                .putInt(-1);
+        assertInvalid(unknownVersion.array());
+        ByteBuffer negativeLength = ByteBuffer.allocate(TimedEntrySerializer.HEADER_LENGTH)
+                .put(TimedEntrySerializer.VERSION)
+                .putLong(1)
+                .putInt(-7);
+        assertInvalid(negativeLength.array());
+    }
+
+    private void assertRoundTrip(TimedEntry entry) {
+        byte[] data = serializer.serialize("t", entry);
+        assertEntryEquals(entry, deserializer.deserialize("t", data));
+        assertEntryEquals(entry, deserializer.deserialize("t", null, ByteBuffer.wrap(data)));
+    }
+
+    private void assertInvalid(byte[] data) {
+        try {
+            deserializer.deserialize("t", data);
+            fail("deserialized an invalid record");
+        } catch (SerializationException expected) {
+        }
+    }
+
+    private static void assertEntryEquals(TimedEntry expected, TimedEntry actual) {
+        assertEquals(expected.getTime(), actual.getTime());
+        assertEquals(expected.getMessage(), actual.getMessage());
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.threadracing.benchmark;
+
+import org.jboss.as.quickstarts.threadracing.Race;
+import org.jboss.as.quickstarts.threadracing.stage.batch.BatchJobCompletions;
+import org.jboss.as.quickstarts.threadracing.stage.batch.BatchRaceStage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the {@link org.jboss.as.quickstarts.threadracing.stage.batch.BatchRaceStage}, with the race job run by the {@link org.jboss.as.quickstarts.threadracing.benchmark.StandInJobOperator}.
+ *
+ * Note that the race job's writer simulates 10ms of work per item, for up to 50 items.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class BatchRaceStageBenchmark {
+
+    private BatchRaceStage stage;
+
+    private Race.Registration registration;
+
+    @Setup
+    public void setup() throws Exception {
+        final BatchJobCompletions completions = new BatchJobCompletions();
+        StandInJobOperator.notify(completions);
+        stage = new BatchRaceStage();
+        RaceStageBenchmarks.inject(stage, "completions", completions);
+        registration = RaceStageBenchmarks.registration(RaceStageBenchmarks.environment(0));
+    }
+
+    @TearDown
+    public void tearDown() {
+        StandInJobOperator.notify(null);
+    }
+
+    @Benchmark
+    public void run() throws Exception {
+        stage.run(registration);
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.threadracing.benchmark;
+
+import com.sun.net.httpserver.HttpServer;
+import org.jboss.as.quickstarts.threadracing.Race;
+import org.jboss.as.quickstarts.threadracing.stage.jaxrs.BoxApplication;
+import org.jboss.as.quickstarts.threadracing.stage.jaxrs.BoxClient;
+import org.jboss.as.quickstarts.threadracing.stage.jaxrs.JAXRSRaceStage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jakarta.enterprise.concurrent.ManagedExecutorService;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the {@link org.jboss.as.quickstarts.threadracing.stage.jaxrs.JAXRSRaceStage}, with the box service replaced by an in-process HTTP endpoint which replies immediately, thus the measured latency is the one of the JAX-RS client side, through the sync and the async pit stop calls.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class JAXRSRaceStageBenchmark {
+
+    private HttpServer server;
+
+    private ExecutorService serverExecutor;
+
+    private ExecutorService clientExecutor;
+
+    private BoxClient boxClient;
+
+    private JAXRSRaceStage stage;
+
+    private Race.Registration registration;
+
+    @Setup
+    public void setup() throws Exception {
+        serverExecutor = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/" + BoxApplication.PATH + "/pitStop/", exchange -> {
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.setExecutor(serverExecutor);
+        server.start();
+        clientExecutor = Executors.newCachedThreadPool();
+        boxClient = new BoxClient();
+        RaceStageBenchmarks.inject(boxClient, "executorService", RaceStageBenchmarks.standIn(ManagedExecutorService.class, clientExecutor));
+        RaceStageBenchmarks.invoke(boxClient, "init");
+        stage = new JAXRSRaceStage();
+        RaceStageBenchmarks.inject(stage, "boxClient", boxClient);
+        registration = RaceStageBenchmarks.registration(RaceStageBenchmarks.environment(server.getAddress().getPort()));
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        RaceStageBenchmarks.invoke(boxClient, "close");
+        clientExecutor.shutdownNow();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public void run() throws Exception {
+        stage.run(registration);
+    }
+
+    @Benchmark
+    public void runAsync() throws Exception {
+        stage.runAsync(registration).toCompletableFuture().get();
+    }
+}
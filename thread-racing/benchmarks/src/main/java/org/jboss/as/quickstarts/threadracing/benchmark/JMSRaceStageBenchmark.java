@@ -0,0 +1,122 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.threadracing.benchmark;
+
+import org.apache.activemq.artemis.core.config.Configuration;
+import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.apache.activemq.artemis.jms.client.ActiveMQJMSConnectionFactory;
+import org.jboss.as.quickstarts.threadracing.Race;
+import org.jboss.as.quickstarts.threadracing.stage.jms.JMSRaceStage;
+import org.jboss.as.quickstarts.threadracing.stage.jms.JMSRequestReply;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.JMSContext;
+import jakarta.jms.JMSException;
+import jakarta.jms.Queue;
+import jakarta.jms.TextMessage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the {@link org.jboss.as.quickstarts.threadracing.stage.jms.JMSRaceStage}, with an in-process (in-vm) ActiveMQ Artemis broker, and plain JMS message listeners in place of the stage's MDBs.
+ * Run it with several threads, e.g. -t 16, to measure the stage with many requests in flight.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class JMSRaceStageBenchmark {
+
+    private EmbeddedActiveMQ broker;
+
+    private ActiveMQJMSConnectionFactory connectionFactory;
+
+    private JMSContext listenerContext;
+
+    private JMSContext replyListenerContext;
+
+    private JMSRaceStage stage;
+
+    private Race.Registration registration;
+
+    @Setup
+    public void setup() throws Exception {
+        final Configuration configuration = new ConfigurationImpl()
+                .setPersistenceEnabled(false)
+                .setSecurityEnabled(false)
+                .setJMXManagementEnabled(false)
+                .addAcceptorConfiguration("in-vm", "vm://0");
+        broker = new EmbeddedActiveMQ().setConfiguration(configuration).start();
+        connectionFactory = new ActiveMQJMSConnectionFactory("vm://0");
+        // the stand-in for the stage's MDB, which echoes the requests
+        listenerContext = connectionFactory.createContext();
+        final Queue requestQueue = listenerContext.createQueue("JMSThreadRacingQueue");
+        listenerContext.createConsumer(requestQueue).setMessageListener(message -> {
+            try {
+                listenerContext.createProducer()
+                        .setJMSCorrelationID(message.getJMSCorrelationID())
+                        .send(message.getJMSReplyTo(), ((TextMessage) message).getText());
+            } catch (JMSException e) {
+                e.printStackTrace();
+            }
+        });
+        final JMSRequestReply requestReply = new JMSRequestReply();
+        // the stand-in for the reply queue's MDB, which dispatches the replies
+        replyListenerContext = connectionFactory.createContext();
+        final Queue replyQueue = replyListenerContext.createQueue("JMSThreadRacingReplyQueue");
+        replyListenerContext.createConsumer(replyQueue).setMessageListener(message -> {
+            try {
+                requestReply.reply(message.getJMSCorrelationID(), ((TextMessage) message).getText());
+            } catch (JMSException e) {
+                e.printStackTrace();
+            }
+        });
+        RaceStageBenchmarks.inject(requestReply, "requestQueue", requestQueue);
+        RaceStageBenchmarks.inject(requestReply, "replyQueue", replyQueue);
+        RaceStageBenchmarks.inject(requestReply, "cf", (ConnectionFactory) connectionFactory);
+        RaceStageBenchmarks.invoke(requestReply, "init");
+        stage = new JMSRaceStage();
+        RaceStageBenchmarks.inject(stage, "requestReply", requestReply);
+        registration = RaceStageBenchmarks.registration(RaceStageBenchmarks.environment(0));
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        replyListenerContext.close();
+        listenerContext.close();
+        connectionFactory.close();
+        broker.stop();
+    }
+
+    @Benchmark
+    public void run() throws Exception {
+        stage.run(registration);
+    }
+}
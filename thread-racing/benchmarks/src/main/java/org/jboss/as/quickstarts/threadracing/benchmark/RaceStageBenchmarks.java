@@ -0,0 +1,167 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.threadracing.benchmark;
+
+import org.jboss.as.quickstarts.threadracing.EnvironmentProperties;
+import org.jboss.as.quickstarts.threadracing.Race;
+import org.jboss.as.quickstarts.threadracing.RaceBroadcaster;
+import org.jboss.as.quickstarts.threadracing.Racer;
+import org.jboss.as.quickstarts.threadracing.results.ChampionshipStandings;
+import org.jboss.as.quickstarts.threadracing.results.RaceResult;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Utilities shared by the race stage benchmarks, which run each stage outside the server.
+ *
+ * The stages are container managed beans, so the benchmarks create them and set their injected fields, with in-process stand-ins for the container provided resources.
+ */
+final class RaceStageBenchmarks {
+
+    private RaceStageBenchmarks() {
+    }
+
+    /**
+     * Builds a race environment targeting the specified HTTP server port on localhost.
+     * @param port
+     * @return
+     */
+    static Map<String, String> environment(int port) {
+        final Map<String, String> environment = new HashMap<>();
+        environment.put(EnvironmentProperties.SERVER_NAME, "localhost");
+        environment.put(EnvironmentProperties.SERVER_PORT, String.valueOf(port));
+        environment.put(EnvironmentProperties.ROOT_PATH, "");
+        return environment;
+    }
+
+    /**
+     * Creates the registration of a racer in a race which is never run, so the stages can be run standalone.
+     * @param environment the race's environment
+     * @return
+     * @throws Exception
+     */
+    static Race.Registration registration(Map<String, String> environment) throws Exception {
+        final Racer racer = new Racer("Benchmark Racer");
+        final Race race = new Race(Collections.singletonList(racer), environment, new SilentRaceBroadcaster(), null);
+        // registrations are only created by a running race, thus the private constructor
+        final Constructor<Race.Registration> constructor = Race.Registration.class.getDeclaredConstructor(Race.class, Racer.class, int.class);
+        constructor.setAccessible(true);
+        return constructor.newInstance(race, racer, 1);
+    }
+
+    /**
+     * Sets the value of a field, which the container would inject.
+     * @param target
+     * @param fieldName
+     * @param value
+     * @throws Exception
+     */
+    static void inject(Object target, String fieldName, Object value) throws Exception {
+        final Field field = target.getClass().getDeclaredField(fieldName);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+
+    /**
+     * Invokes a lifecycle callback method, such as a {@link jakarta.annotation.PostConstruct} one, which the container would invoke.
+     * @param target
+     * @param methodName
+     * @throws Exception
+     */
+    static void invoke(Object target, String methodName) throws Exception {
+        final Method method = target.getClass().getDeclaredMethod(methodName);
+        method.setAccessible(true);
+        method.invoke(target);
+    }
+
+    /**
+     * Creates a stand-in for a container provided interface, e.g. a {@link jakarta.enterprise.concurrent.ManagedExecutorService}, which delegates all methods supported by the specified object, and throws {@link UnsupportedOperationException} on other methods.
+     * @param type the interface
+     * @param delegate
+     * @param <T>
+     * @return
+     */
+    static <T> T standIn(Class<T> type, final Object delegate) {
+        final InvocationHandler handler = new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if (method.getDeclaringClass() == Object.class) {
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        default:
+                            return type.getSimpleName() + " stand-in for " + delegate;
+                    }
+                }
+                if (!method.getDeclaringClass().isInstance(delegate)) {
+                    throw new UnsupportedOperationException(method.toString());
+                }
+                try {
+                    return method.invoke(delegate, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }
+        };
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    /**
+     * A broadcaster that ignores all race events.
+     */
+    private static class SilentRaceBroadcaster implements RaceBroadcaster {
+
+        @Override
+        public void start() {
+        }
+
+        @Override
+        public void startYourEngines() {
+        }
+
+        @Override
+        public void readySetGo() {
+        }
+
+        @Override
+        public void raceProgress(String msg) {
+        }
+
+        @Override
+        public void raceEnd() {
+        }
+
+        @Override
+        public void raceResult(RaceResult result) {
+        }
+
+        @Override
+        public void championshipStandings(List<ChampionshipStandings.Entry> entries) {
+        }
+    }
+}
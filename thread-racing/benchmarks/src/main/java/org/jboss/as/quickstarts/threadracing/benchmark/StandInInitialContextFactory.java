@@ -0,0 +1,73 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.threadracing.benchmark;
+
+import javax.naming.Context;
+import javax.naming.NameNotFoundException;
+import javax.naming.spi.InitialContextFactory;
+import java.lang.reflect.Proxy;
+import java.util.Hashtable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An in-process stand-in for the server's JNDI, which only supports lookups of the objects bound through {@link #bind(String, Object)}.
+ *
+ * Activated by setting the system property {@link javax.naming.Context#INITIAL_CONTEXT_FACTORY} to this class name.
+ */
+public class StandInInitialContextFactory implements InitialContextFactory {
+
+    /**
+     * the mapping JNDI name --> bound object
+     */
+    private static final Map<String, Object> bindings = new ConcurrentHashMap<>();
+
+    /**
+     * Binds an object, and activates this factory.
+     * @param name
+     * @param object
+     */
+    static void bind(String name, Object object) {
+        bindings.put(name, object);
+        System.setProperty(Context.INITIAL_CONTEXT_FACTORY, StandInInitialContextFactory.class.getName());
+    }
+
+    @Override
+    public Context getInitialContext(Hashtable<?, ?> environment) {
+        return (Context) Proxy.newProxyInstance(Context.class.getClassLoader(), new Class<?>[]{Context.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "lookup":
+                    final String name = String.valueOf(args[0]);
+                    final Object object = bindings.get(name);
+                    if (object == null) {
+                        throw new NameNotFoundException(name);
+                    }
+                    return object;
+                case "close":
+                    return null;
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return "stand-in JNDI context";
+                default:
+                    throw new UnsupportedOperationException(method.toString());
+            }
+        });
+    }
+}
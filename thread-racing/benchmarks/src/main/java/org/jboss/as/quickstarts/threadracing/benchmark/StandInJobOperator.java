@@ -0,0 +1,181 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.threadracing.benchmark;
+
+import org.jboss.as.quickstarts.threadracing.stage.batch.BatchJobCompletions;
+import org.jboss.as.quickstarts.threadracing.stage.batch.BatchRaceStageItemProcessor;
+import org.jboss.as.quickstarts.threadracing.stage.batch.BatchRaceStageItemReader;
+import org.jboss.as.quickstarts.threadracing.stage.batch.BatchRaceStageItemWriter;
+
+import jakarta.batch.operations.JobOperator;
+import jakarta.batch.runtime.BatchStatus;
+import jakarta.batch.runtime.JobExecution;
+import jakarta.batch.runtime.JobInstance;
+import jakarta.batch.runtime.StepExecution;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An in-process stand-in for the Batch runtime's {@link jakarta.batch.operations.JobOperator}, found by {@link jakarta.batch.runtime.BatchRuntime#getJobOperator()} through the service loader.
+ *
+ * Only starting the "race" job is supported: the job's reader, processor and writer run in a chunk loop, with same item count as race.xml, and then the job's end is notified, as done by the race's job listener.
+ */
+public class StandInJobOperator implements JobOperator {
+
+    /**
+     * the race.xml chunk's item count
+     */
+    private static final int ITEM_COUNT = 3;
+
+    /**
+     * the job execution ids generator
+     */
+    private static final AtomicLong executionIds = new AtomicLong();
+
+    /**
+     * the threads where job executions run
+     */
+    private static final ExecutorService executor = Executors.newCachedThreadPool(r -> {
+        final Thread thread = new Thread(r, "stand-in-batch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * the completions to notify when a job execution ends
+     */
+    private static volatile BatchJobCompletions completions;
+
+    /**
+     * Sets the completions to notify when a job execution ends.
+     * @param completions
+     */
+    static void notify(BatchJobCompletions completions) {
+        StandInJobOperator.completions = completions;
+    }
+
+    @Override
+    public long start(String jobXMLName, Properties jobParameters) {
+        if (!"race".equals(jobXMLName)) {
+            throw new UnsupportedOperationException("only the race job is supported");
+        }
+        // the operator is instantiated by the service loader, thus the completions are set through notify(...) instead of its constructor
+        final BatchJobCompletions completions = StandInJobOperator.completions;
+        if (completions == null) {
+            throw new IllegalStateException("the completions to notify are not set, StandInJobOperator.notify(...) must be invoked before starting a job");
+        }
+        final long executionId = executionIds.incrementAndGet();
+        executor.execute(() -> {
+            BatchStatus batchStatus = BatchStatus.COMPLETED;
+            try {
+                runRaceJob();
+            } catch (Exception e) {
+                batchStatus = BatchStatus.FAILED;
+            }
+            completions.complete(executionId, batchStatus);
+        });
+        return executionId;
+    }
+
+    private void runRaceJob() throws Exception {
+        final BatchRaceStageItemReader reader = new BatchRaceStageItemReader();
+        final BatchRaceStageItemProcessor processor = new BatchRaceStageItemProcessor();
+        final BatchRaceStageItemWriter writer = new BatchRaceStageItemWriter();
+        reader.open(null);
+        final List<Object> chunk = new ArrayList<>(ITEM_COUNT);
+        Object item;
+        while ((item = reader.readItem()) != null) {
+            final Object processed = processor.processItem(item);
+            if (processed != null) {
+                chunk.add(processed);
+            }
+            if (chunk.size() == ITEM_COUNT) {
+                writer.writeItems(chunk);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            writer.writeItems(chunk);
+        }
+        reader.close();
+    }
+
+    @Override
+    public Set<String> getJobNames() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int getJobInstanceCount(String jobName) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<JobInstance> getJobInstances(String jobName, int start, int count) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<Long> getRunningExecutions(String jobName) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Properties getParameters(long executionId) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public long restart(long executionId, Properties restartParameters) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void stop(long executionId) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void abandon(long executionId) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public JobInstance getJobInstance(long executionId) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<JobExecution> getJobExecutions(JobInstance instance) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public JobExecution getJobExecution(long executionId) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<StepExecution> getStepExecutions(long jobExecutionId) {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -16,19 +16,25 @@
  */
 package org.jboss.as.quickstarts.threadracing;
 
-import org.jboss.as.quickstarts.threadracing.results.ChampionshipStandings;
 import org.jboss.as.quickstarts.threadracing.results.RaceResult;
 import org.jboss.as.quickstarts.threadracing.results.RaceResults;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.CyclicBarrier;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * The awesome Jakarta EE thread race. It's the core of the app logic, but has no usage of Jakarta EE technologies, thus of limited interest to study.
  *
+ * Each race instance holds the whole state of a single race, which means independent races may run concurrently, even with the same racers, and an instance may only be run once.
+ *
  * @author Eduardo Martins
  */
 public class Race {
@@ -36,27 +42,32 @@ public class Race {
     /**
      * a barrier used to sync racers for the race start
      */
-    private CyclicBarrier startBarrier;
+    private final CyclicBarrier startBarrier;
 
     /**
      * a count down latch used by the race to know when all racers finished/aborted
      */
-    private CountDownLatch endCountDownLatch;
+    private final CountDownLatch endCountDownLatch;
 
     /**
      * provides the positions to racer's who finish the race, the initial value is the first position, which increments on a racer finish
      */
-    private AtomicInteger donePosition;
+    private final AtomicInteger donePosition;
 
     /**
      * provides the position to racer's who abandon the race, the initial value is the last possible position, which decrements on a racer abort
      */
-    private AtomicInteger abortedPosition;
+    private final AtomicInteger abortedPosition;
 
     /**
      * the race result
      */
-    private RaceResult result;
+    private final RaceResult result;
+
+    /**
+     * indicates if the race was already run
+     */
+    private final AtomicBoolean started = new AtomicBoolean();
 
     /**
      * the race's environment
@@ -74,89 +85,100 @@ public class Race {
     private final RaceResults results;
 
     /**
-     * the racer #1
+     * the racers
      */
-    private final Racer racer1;
+    private final List<Racer> racers;
 
     /**
-     * the racer #2
+     * how the racers are run
      */
-    private final Racer racer2;
+    private final RacerExecutionMode executionMode;
 
     /**
-     * the racer #3
-     */
-    private final Racer racer3;
-
-    /**
-     * the racer #4
+     * Creates a new race with the specified racers and environment, where racers run in platform threads.
+     * @param racers the racers, at least one
+     * @param environment
+     * @param broadcaster the broadcaster that will be used to update fans about the race progress.
+     * @param results the race results
      */
-    private final Racer racer4;
+    public Race(List<Racer> racers, Map<String, String> environment, RaceBroadcaster broadcaster, RaceResults results) {
+        this(racers, RacerExecutionMode.PLATFORM, environment, broadcaster, results);
+    }
 
     /**
-     * Creates a new race with the specified racers and environment.
-     * @param racer1
-     * @param racer2
-     * @param racer3
-     * @param racer4
+     * Creates a new race with the specified racers, execution mode and environment.
+     * @param racers the racers, at least one
+     * @param executionMode how the racers are run
      * @param environment
      * @param broadcaster the broadcaster that will be used to update fans about the race progress.
      * @param results the race results
      */
-    public Race(Racer racer1, Racer racer2, Racer racer3, Racer racer4, Map<String, String> environment, RaceBroadcaster broadcaster, RaceResults results) {
-        this.racer1 = racer1;
-        this.racer2 = racer2;
-        this.racer3 = racer3;
-        this.racer4 = racer4;
+    public Race(List<Racer> racers, RacerExecutionMode executionMode, Map<String, String> environment, RaceBroadcaster broadcaster, RaceResults results) {
+        if (racers.isEmpty()) {
+            throw new IllegalArgumentException("a race needs at least one racer");
+        }
+        if (executionMode == RacerExecutionMode.VIRTUAL && !VirtualThreads.isSupported()) {
+            throw new UnsupportedOperationException("virtual threads require a Java 21+ runtime");
+        }
+        this.racers = Collections.unmodifiableList(new ArrayList<>(racers));
+        this.executionMode = executionMode;
         this.environment = environment;
         this.broadcaster = broadcaster;
         this.results = results;
+        this.startBarrier = new CyclicBarrier(this.racers.size() + 1);
+        this.endCountDownLatch = new CountDownLatch(this.racers.size());
+        this.donePosition = new AtomicInteger(1);
+        this.abortedPosition = new AtomicInteger(this.racers.size());
+        this.result = new RaceResult();
+    }
+
+    /**
+     * Retrieves the race's racers.
+     * @return
+     */
+    public List<Racer> getRacers() {
+        return racers;
     }
 
     /**
      * Starts the race.
+     * @return the race result
      * @throws Exception if there is an unexpected issue with the race, such as racers taking too long being ready to start, or not finishing the race in time.
      */
-    public synchronized void run() throws Exception {
-        reset();
+    public RaceResult run() throws Exception {
+        if (!started.compareAndSet(false, true)) {
+            throw new IllegalStateException("the race was already run");
+        }
         broadcaster.start();
-        registerRacers();
-        startEngines();
+        final List<Registration> registrations = registerRacers();
+        startEngines(registrations);
         startRace();
         awaitEnd();
         processResult();
-    }
-
-    /**
-     * Resets the race state.
-     */
-    private void reset() {
-        startBarrier = new CyclicBarrier(5);
-        endCountDownLatch = new CountDownLatch(4);
-        donePosition = new AtomicInteger(1);
-        abortedPosition = new AtomicInteger(4);
-        result = new RaceResult();
+        return result;
     }
 
     /**
      * Registers all racers.
+     * @return the racers registrations
      */
-    private void registerRacers() {
-        racer1.setRegistration(new Registration(racer1, 1));
-        racer2.setRegistration(new Registration(racer2, 2));
-        racer3.setRegistration(new Registration(racer3, 3));
-        racer4.setRegistration(new Registration(racer4, 4));
+    private List<Registration> registerRacers() {
+        final List<Registration> registrations = new ArrayList<>(racers.size());
+        for (Racer racer : racers) {
+            registrations.add(new Registration(racer, registrations.size() + 1));
+        }
+        return registrations;
     }
 
     /**
      * Starts racer's engines.
+     * @param registrations
      */
-    private void startEngines() {
+    private void startEngines(List<Registration> registrations) {
         broadcaster.startYourEngines();
-        racer1.startEngine();
-        racer2.startEngine();
-        racer3.startEngine();
-        racer4.startEngine();
+        for (Registration registration : registrations) {
+            registration.getRacer().startEngine(registration);
+        }
     }
 
     /**
@@ -173,7 +195,9 @@ public class Race {
      * @throws Exception if the race end has expired.
      */
     private void awaitEnd() throws Exception {
-        endCountDownLatch.await(90, TimeUnit.SECONDS);
+        if (!endCountDownLatch.await(90, TimeUnit.SECONDS)) {
+            throw new TimeoutException("race did not end in time, " + endCountDownLatch.getCount() + " racer(s) still running");
+        }
         broadcaster.raceEnd();
     }
 
@@ -183,7 +207,7 @@ public class Race {
     private void processResult() {
         results.add(result);
         broadcaster.raceResult(result);
-        broadcaster.championshipStandings(new ChampionshipStandings().addAll(results).getEntryList());
+        broadcaster.championshipStandings(results.getChampionshipStandings());
     }
 
     /**
@@ -245,6 +269,14 @@ public class Race {
             return environment;
         }
 
+        /**
+         * Retrieves how the racer must be run.
+         * @return
+         */
+        public RacerExecutionMode getExecutionMode() {
+            return executionMode;
+        }
+
         /**
          * Retrieves the registered racer.
          * @return
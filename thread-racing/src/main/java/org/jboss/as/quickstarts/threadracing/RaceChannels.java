@@ -0,0 +1,69 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.threadracing;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The registry of race channels, i.e. the {@link org.jboss.as.quickstarts.threadracing.WebSocketRaceBroadcaster}s of the races in progress, which spectators may subscribe.
+ */
+@ApplicationScoped
+public class RaceChannels {
+
+    /**
+     * the race id generator
+     */
+    private final AtomicLong nextRaceId = new AtomicLong();
+
+    /**
+     * the mapping race id --> race channel
+     */
+    private final ConcurrentMap<Long, WebSocketRaceBroadcaster> channels = new ConcurrentHashMap<>();
+
+    /**
+     * Creates and registers a new race channel, which is unregistered once closed.
+     * @param scheduler the executor used to schedule the pauses between the channel's messages
+     * @return
+     */
+    public WebSocketRaceBroadcaster create(ScheduledExecutorService scheduler) {
+        final long raceId = nextRaceId.incrementAndGet();
+        final WebSocketRaceBroadcaster channel = new WebSocketRaceBroadcaster(raceId, scheduler, () -> channels.remove(raceId));
+        channels.put(raceId, channel);
+        return channel;
+    }
+
+    /**
+     * Retrieves the channel of the race with the specified id.
+     * @param raceId
+     * @return null if there is no such race in progress
+     */
+    public WebSocketRaceBroadcaster find(long raceId) {
+        return channels.get(raceId);
+    }
+
+    /**
+     * Retrieves the number of races in progress.
+     * @return
+     */
+    public int size() {
+        return channels.size();
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.threadracing;
+
+import org.jboss.as.quickstarts.threadracing.results.RaceResult;
+import org.jboss.as.quickstarts.threadracing.results.RaceResults;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ManagedThreadFactory;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * The race engine, an application scoped CDI bean which runs independent races concurrently, each in its own managed thread.
+ *
+ * The number of races running at the same time is capped, by default to {@link #DEFAULT_MAX_CONCURRENT_RACES}, a value which may be changed through the system property {@link #MAX_CONCURRENT_RACES_PROPERTY}.
+ * Races started when the cap is reached are rejected.
+ */
+@ApplicationScoped
+public class RaceEngine {
+
+    /**
+     * the name of the system property which sets the max number of concurrent races
+     */
+    public static final String MAX_CONCURRENT_RACES_PROPERTY = "org.jboss.as.quickstarts.threadracing.maxConcurrentRaces";
+
+    /**
+     * the default max number of concurrent races
+     */
+    public static final int DEFAULT_MAX_CONCURRENT_RACES = 200;
+
+    /**
+     * the default managed thread factory instance, used to create each race's thread
+     */
+    @Resource
+    private ManagedThreadFactory managedThreadFactory;
+
+    /**
+     * CDI injection of all race results
+     */
+    @Inject
+    private RaceResults raceResults;
+
+    /**
+     * the max number of concurrent races
+     */
+    private int maxConcurrentRaces;
+
+    /**
+     * a permit for each race which may be started
+     */
+    private Semaphore raceSlots;
+
+    @PostConstruct
+    void init() {
+        maxConcurrentRaces = Integer.getInteger(MAX_CONCURRENT_RACES_PROPERTY, DEFAULT_MAX_CONCURRENT_RACES);
+        if (maxConcurrentRaces < 1) {
+            throw new IllegalStateException(MAX_CONCURRENT_RACES_PROPERTY + " must be a positive number");
+        }
+        raceSlots = new Semaphore(maxConcurrentRaces);
+    }
+
+    /**
+     * Starts a new race, with the specified racers and environment, where racers run in platform threads.
+     * @param racers
+     * @param environment
+     * @param broadcaster the broadcaster that will be used to update fans about the race progress.
+     * @return a future which completes with the race result, or exceptionally if the race failed or was rejected, due to the max number of concurrent races being reached
+     */
+    public CompletableFuture<RaceResult> start(List<Racer> racers, Map<String, String> environment, RaceBroadcaster broadcaster) {
+        return start(racers, RacerExecutionMode.PLATFORM, environment, broadcaster);
+    }
+
+    /**
+     * Starts a new race, with the specified racers, execution mode and environment.
+     * @param racers
+     * @param executionMode how the racers are run
+     * @param environment
+     * @param broadcaster the broadcaster that will be used to update fans about the race progress.
+     * @return a future which completes with the race result, or exceptionally if the race failed or was rejected, due to the max number of concurrent races being reached
+     */
+    public CompletableFuture<RaceResult> start(List<Racer> racers, RacerExecutionMode executionMode, Map<String, String> environment, RaceBroadcaster broadcaster) {
+        final CompletableFuture<RaceResult> future = new CompletableFuture<>();
+        if (!raceSlots.tryAcquire()) {
+            future.completeExceptionally(new RejectedExecutionException("max number of concurrent races (" + maxConcurrentRaces + ") reached"));
+            return future;
+        }
+        try {
+            final Race race = new Race(racers, executionMode, environment, broadcaster, raceResults);
+            final Runnable raceTask = new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        future.complete(race.run());
+                    } catch (Throwable t) {
+                        future.completeExceptionally(t);
+                    } finally {
+                        raceSlots.release();
+                    }
+                }
+            };
+            managedThreadFactory.newThread(raceTask).start();
+        } catch (RuntimeException e) {
+            raceSlots.release();
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Retrieves the max number of concurrent races.
+     * @return
+     */
+    public int getMaxConcurrentRaces() {
+        return maxConcurrentRaces;
+    }
+
+    /**
+     * Retrieves the number of races currently running.
+     * @return
+     */
+    public int getRacesInProgress() {
+        return maxConcurrentRaces - raceSlots.availablePermits();
+    }
+}
@@ -23,6 +23,7 @@ import org.jboss.as.quickstarts.threadracing.stage.jms.JMSRaceStage;
 import org.jboss.as.quickstarts.threadracing.stage.json.JSONRaceStage;
 
 import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ContextService;
 import jakarta.enterprise.concurrent.ManagedThreadFactory;
 import jakarta.inject.Inject;
 import java.util.UUID;
@@ -31,8 +32,9 @@ import java.util.UUID;
  * A racer, a CDI bean injected with an instance of each race stage, which are also CDI beans.
  *
  * The race stages are run sequentially in a managed thread, provided by the container's EE Concurrency 1.0 {@link jakarta.enterprise.concurrent.ManagedThreadFactory} default instance, also injected, but through @Resource.
+ * If the race's {@link org.jboss.as.quickstarts.threadracing.RacerExecutionMode} is VIRTUAL the race stages are instead run in a virtual thread, and the EE Concurrency 1.0 {@link jakarta.enterprise.concurrent.ContextService} default instance is used to propagate the invocation context.
  *
- * The race's {@link org.jboss.as.quickstarts.threadracing.Race.Registration} is used to control the racer's start and finish/abort.
+ * The race's {@link org.jboss.as.quickstarts.threadracing.Race.Registration}, provided when the racer's engine is started, is used to control the racer's start and finish/abort.
  *
  * @author Eduardo Martins
  */
@@ -45,6 +47,13 @@ public class Racer {
     @Resource
     private ManagedThreadFactory managedThreadFactory;
 
+    /**
+     * JNDI injection of the default context service instance, introduced by EE Concurrency 1.0 (JSR 236),
+     * which apps may use to run tasks, in threads not managed by the container, with the invocation context present on the task's contextual proxy creation.
+     */
+    @Resource
+    private ContextService contextService;
+
     /**
      * cdi injection of the Batch 1.0 race stage
      */
@@ -75,11 +84,6 @@ public class Racer {
     @Inject
     private JSONRaceStage jsonRaceStageRen;
 
-    /**
-     * the racer's registration , which the racer uses to "interact" with a race
-     */
-    private Race.Registration registration;
-
     /**
      * the racer's name
      */
@@ -109,17 +113,13 @@ public class Racer {
     }
 
     /**
-     * Sets the race's registration, used by the racer to report race progress.
-     * @param registration
-     */
-    public void setRegistration(Race.Registration registration) {
-        this.registration = registration;
-    }
-
-    /**
-     * Starts the racer's engine a.k.a. as thread. The default {@link jakarta.enterprise.concurrent.ManagedThreadFactory} instance, provided by EE Concurrency 1.0, is used to create the racer's thread.
+     * Starts the racer's engine a.k.a. as thread. The default {@link jakarta.enterprise.concurrent.ManagedThreadFactory} instance, provided by EE Concurrency 1.0, is used to create the racer's thread,
+     * unless the race requires virtual threads, in such case the racer's task is wrapped by a contextual proxy, created by the default {@link jakarta.enterprise.concurrent.ContextService} instance, and run in a virtual thread.
+     *
+     * The racer keeps no state wrt the race, so it may race in multiple races at the same time.
+     * @param registration the race's registration, used by the racer to report race progress.
      */
-    public void startEngine() {
+    public void startEngine(final Race.Registration registration) {
         final Runnable raceTask = new Runnable() {
             @Override
             public void run() {
@@ -127,7 +127,7 @@ public class Racer {
                     // the racer is ready
                     registration.ready();
                     // race on, run baby run
-                    runRaceStages();
+                    runRaceStages(registration);
                     // game over
                     registration.done();
                 } catch (Throwable t) {
@@ -135,14 +135,20 @@ public class Racer {
                 }
             }
         };
-        managedThreadFactory.newThread(raceTask).start();
+        if (registration.getExecutionMode() == RacerExecutionMode.VIRTUAL) {
+            // a virtual thread is not a managed thread, the contextual proxy is what makes the invocation context available to the racer's stages
+            VirtualThreads.newThread(contextService.createContextualProxy(raceTask, Runnable.class)).start();
+        } else {
+            managedThreadFactory.newThread(raceTask).start();
+        }
     }
 
     /**
      * Execution of the race stages/tasks.
+     * @param registration
      * @throws Exception
      */
-    private void runRaceStages() throws Exception {
+    private void runRaceStages(Race.Registration registration) throws Exception {
         batchRaceStage.run(registration);
         registration.broadcast("completed the Batch 1.0 stage.");
         eeConcurrencyRaceStage.run(registration);
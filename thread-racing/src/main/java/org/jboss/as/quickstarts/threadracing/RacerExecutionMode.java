@@ -0,0 +1,52 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.threadracing;
+
+/**
+ * The modes available to run the racers of a race, and their blocking race stages.
+ */
+public enum RacerExecutionMode {
+
+    /**
+     * each racer runs in a platform thread, created by the default {@link jakarta.enterprise.concurrent.ManagedThreadFactory} instance
+     */
+    PLATFORM,
+
+    /**
+     * each racer runs in a virtual thread, with the EE invocation context captured by the default {@link jakarta.enterprise.concurrent.ContextService} instance. Requires a Java 21+ runtime.
+     */
+    VIRTUAL;
+
+    /**
+     * Retrieves the execution mode with the specified name, ignoring case.
+     * @param name
+     * @param defaultMode the mode to return if the name is null
+     * @return
+     * @throws IllegalArgumentException if there is no mode with the specified name
+     */
+    public static RacerExecutionMode of(String name, RacerExecutionMode defaultMode) {
+        if (name == null) {
+            return defaultMode;
+        }
+        for (RacerExecutionMode mode : values()) {
+            if (mode.name().equalsIgnoreCase(name)) {
+                return mode;
+            }
+        }
+        throw new IllegalArgumentException("unknown racer execution mode " + name);
+    }
+}
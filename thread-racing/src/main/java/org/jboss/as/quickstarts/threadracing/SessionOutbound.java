@@ -0,0 +1,273 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.threadracing;
+
+import jakarta.websocket.SendHandler;
+import jakarta.websocket.SendResult;
+import jakarta.websocket.Session;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+
+/**
+ * The outbound text messages queue of a Web Socket {@link jakarta.websocket.Session}, which sends messages through the session's async remote, one at a time, so no thread ever blocks on a slow client.
+ *
+ * The queue is bounded: once full, a coalescable message replaces the last queued message, if that one is also coalescable, as it carries the latest state, and other messages take the place of the oldest queued coalescable message.
+ * If there is no coalescable message to replace, the client is too slow, and its session is closed.
+ */
+public class SessionOutbound {
+
+    /**
+     * the default max number of queued messages
+     */
+    public static final int DEFAULT_CAPACITY = 64;
+
+    /**
+     * the web socket's session where messages are sent.
+     */
+    private final Session session;
+
+    /**
+     * the max number of queued messages
+     */
+    private final int capacity;
+
+    /**
+     * the queued messages, guarded by this
+     */
+    private final Deque<Message> queue = new ArrayDeque<>();
+
+    /**
+     * the handler of the async sends results
+     */
+    private final SendHandler sendHandler = new SendHandler() {
+        @Override
+        public void onResult(SendResult result) {
+            sent(result);
+        }
+    };
+
+    /**
+     * indicates if there is a message being sent, guarded by this
+     */
+    private boolean sending;
+
+    /**
+     * indicates if the session should be closed once all queued messages are sent, guarded by this
+     */
+    private boolean closeRequested;
+
+    /**
+     * indicates if the session was closed, or failed, thus no more messages will be sent, guarded by this
+     */
+    private boolean closed;
+
+    /**
+     * Creates a new outbound queue, with the default capacity.
+     * @param session
+     */
+    public SessionOutbound(Session session) {
+        this(session, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a new outbound queue.
+     * @param session
+     * @param capacity the max number of queued messages
+     */
+    public SessionOutbound(Session session, int capacity) {
+        this.session = session;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Retrieves the queue's session.
+     * @return
+     */
+    public Session getSession() {
+        return session;
+    }
+
+    /**
+     * Sends a message, which is never coalesced.
+     * @param text
+     */
+    public void send(String text) {
+        offer(text, false);
+    }
+
+    /**
+     * Sends a message, which may replace, or be replaced by, other coalescable messages, if the queue is full.
+     * @param text
+     */
+    public void sendCoalescable(String text) {
+        offer(text, true);
+    }
+
+    /**
+     * Closes the session, once all queued messages are sent.
+     */
+    public void close() {
+        synchronized (this) {
+            if (closed || closeRequested) {
+                return;
+            }
+            closeRequested = true;
+            if (sending || !queue.isEmpty()) {
+                return;
+            }
+            closed = true;
+        }
+        closeSession();
+    }
+
+    private void offer(String text, boolean coalescable) {
+        final boolean overflow;
+        synchronized (this) {
+            if (closed || closeRequested) {
+                return;
+            }
+            if (queue.size() < capacity) {
+                queue.addLast(new Message(text, coalescable));
+                overflow = false;
+            } else {
+                overflow = !replaceOrEvict(text, coalescable);
+            }
+            if (overflow) {
+                // the client is too slow
+                closed = true;
+                queue.clear();
+            }
+        }
+        if (overflow) {
+            closeSession();
+            return;
+        }
+        sendNext();
+    }
+
+    /**
+     * Handles a message offered to the full queue, replacing the last queued message, if both are coalescable, or else evicting the oldest queued coalescable message. Must be invoked while holding this lock.
+     * @param text
+     * @param coalescable
+     * @return false if there was no coalescable message queued to replace, or evict
+     */
+    private boolean replaceOrEvict(String text, boolean coalescable) {
+        final Message last = queue.peekLast();
+        if (coalescable && last.coalescable) {
+            last.text = text;
+            return true;
+        }
+        final Iterator<Message> iterator = queue.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().coalescable) {
+                iterator.remove();
+                queue.addLast(new Message(text, coalescable));
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Sends the next queued message, if there is no message being sent.
+     */
+    private void sendNext() {
+        final Message next;
+        synchronized (this) {
+            if (sending || closed) {
+                return;
+            }
+            next = queue.pollFirst();
+            if (next == null) {
+                if (closeRequested) {
+                    closed = true;
+                } else {
+                    return;
+                }
+            } else {
+                sending = true;
+            }
+        }
+        if (next == null) {
+            closeSession();
+            return;
+        }
+        try {
+            session.getAsyncRemote().sendText(next.text, sendHandler);
+        } catch (RuntimeException e) {
+            failed(e);
+        }
+    }
+
+    /**
+     * An async send completed.
+     * @param result
+     */
+    private void sent(SendResult result) {
+        if (!result.isOK()) {
+            failed(result.getException());
+            return;
+        }
+        synchronized (this) {
+            sending = false;
+        }
+        sendNext();
+    }
+
+    /**
+     * An async send failed, the session is closed and queued messages discarded.
+     * @param t
+     */
+    private void failed(Throwable t) {
+        synchronized (this) {
+            sending = false;
+            if (closed) {
+                return;
+            }
+            closed = true;
+            queue.clear();
+        }
+        if (session.isOpen()) {
+            t.printStackTrace();
+        }
+        closeSession();
+    }
+
+    private void closeSession() {
+        try {
+            session.close();
+        } catch (IOException ignore) {
+        }
+    }
+
+    /**
+     * A queued message.
+     */
+    private static class Message {
+
+        private String text;
+
+        private final boolean coalescable;
+
+        private Message(String text, boolean coalescable) {
+            this.text = text;
+            this.coalescable = coalescable;
+        }
+    }
+}
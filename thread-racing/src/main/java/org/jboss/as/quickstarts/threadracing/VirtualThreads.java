@@ -0,0 +1,69 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.threadracing;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Provides virtual threads, when running on a Java 21+ runtime.
+ *
+ * The app still targets older Java releases, so the virtual thread factory is retrieved through reflection.
+ */
+final class VirtualThreads {
+
+    /**
+     * the virtual thread factory, null if the runtime does not support virtual threads
+     */
+    private static final ThreadFactory FACTORY = lookupFactory();
+
+    private VirtualThreads() {
+    }
+
+    private static ThreadFactory lookupFactory() {
+        try {
+            // Thread.ofVirtual().name("racer-", 0).factory()
+            final Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, "racer-", 0L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // not available, or a preview feature not enabled
+            return null;
+        }
+    }
+
+    /**
+     * Indicates if the runtime supports virtual threads.
+     * @return
+     */
+    static boolean isSupported() {
+        return FACTORY != null;
+    }
+
+    /**
+     * Creates a new, unstarted, virtual thread.
+     * @param task
+     * @return
+     * @throws UnsupportedOperationException if the runtime does not support virtual threads
+     */
+    static Thread newThread(Runnable task) {
+        if (FACTORY == null) {
+            throw new UnsupportedOperationException("virtual threads require a Java 21+ runtime");
+        }
+        return FACTORY.newThread(task);
+    }
+}
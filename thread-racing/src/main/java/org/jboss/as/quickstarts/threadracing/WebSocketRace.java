@@ -20,22 +20,27 @@ import org.jboss.as.quickstarts.threadracing.legends.JimmieThronson;
 import org.jboss.as.quickstarts.threadracing.legends.MichaelThrumacher;
 import org.jboss.as.quickstarts.threadracing.legends.SebastienThroeb;
 import org.jboss.as.quickstarts.threadracing.legends.ValentinoThrossi;
-import org.jboss.as.quickstarts.threadracing.results.RaceResults;
 
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ManagedScheduledExecutorService;
 import jakarta.inject.Inject;
 import jakarta.websocket.HandshakeResponse;
+import jakarta.websocket.OnClose;
 import jakarta.websocket.OnOpen;
 import jakarta.websocket.Session;
 import jakarta.websocket.server.HandshakeRequest;
 import jakarta.websocket.server.ServerEndpointConfig;
-import java.io.IOException;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
- * The app's entry point, a Web Socket {@link jakarta.websocket.server.ServerEndpoint}, which runs a race for each client connection established.
+ * The app's entry point, a Web Socket {@link jakarta.websocket.server.ServerEndpoint}, which runs a race for each client connection established, or lets the client watch a race in progress, e.g. /race?watch=1
  *
- * The server endpoint will update the client of the race progress and results, through text messages, and will close the session once the race ends.
+ * The server endpoint will update the clients of the race progress and results, through text messages, and will close the sessions once the race ends.
+ * Races are run by the {@link org.jboss.as.quickstarts.threadracing.RaceEngine}, and messages are sent asynchronously, through the race's channel in {@link org.jboss.as.quickstarts.threadracing.RaceChannels}, thus the session opened handler does not block while the race is in progress.
  *
  * @author Eduardo Martins
  */
@@ -44,6 +49,21 @@ public class WebSocketRace {
 
     public static final String PATH = "/race";
 
+    /**
+     * the name of the request parameter which selects the race's {@link org.jboss.as.quickstarts.threadracing.RacerExecutionMode}, e.g. /race?threads=virtual
+     */
+    public static final String THREADS_PARAM = "threads";
+
+    /**
+     * the name of the request parameter which selects the race in progress to watch, e.g. /race?watch=1
+     */
+    public static final String WATCH_PARAM = "watch";
+
+    /**
+     * the name of the session's user property with the id of the race the session is subscribed to
+     */
+    private static final String RACE_ID_USER_PROP = "raceId";
+
     /**
      * CDI injection of racer #1
      */
@@ -69,29 +89,131 @@ public class WebSocketRace {
     private ValentinoThrossi racer4;
 
     /**
-     * CDI injection of all race results
+     * CDI injection of the race engine
      */
     @Inject
-    private RaceResults raceResults;
+    private RaceEngine raceEngine;
+
+    /**
+     * JNDI injection of the default managed scheduled executor service instance, used to pace the race broadcast
+     */
+    @Resource
+    private ManagedScheduledExecutorService scheduledExecutorService;
 
     /**
-     * Session opened handler, creates and starts a race.
+     * CDI injection of the race channels registry
+     */
+    @Inject
+    private RaceChannels raceChannels;
+
+    /**
+     * Session opened handler, creates and starts a race, or subscribes the session to the race in progress to watch.
      * @param session
      */
     @OnOpen
-    public void onOpen(Session session) {
-        try {
-            new Race(racer1, racer2, racer3, racer4, buildRaceEnvironment(session), new WebSocketRaceBroadcaster(session), raceResults).run();
-        } catch (Exception e) {
-            e.printStackTrace();
-        } finally {
-            try {
-                session.close();
-            } catch (IOException ignore) {
+    public void onOpen(final Session session) {
+        final List<String> watchValues = session.getRequestParameterMap().get(WATCH_PARAM);
+        if (watchValues != null && !watchValues.isEmpty()) {
+            watch(session, watchValues.get(0));
+        } else {
+            race(session);
+        }
+    }
+
+    /**
+     * Session closed handler, unsubscribes the session from its race.
+     * @param session
+     */
+    @OnClose
+    public void onClose(final Session session) {
+        final Long raceId = (Long) session.getUserProperties().get(RACE_ID_USER_PROP);
+        if (raceId != null) {
+            final WebSocketRaceBroadcaster channel = raceChannels.find(raceId);
+            if (channel != null) {
+                channel.unsubscribe(session);
             }
         }
     }
 
+    /**
+     * Subscribes the specified session to the race in progress with the specified id.
+     * @param session
+     * @param raceId
+     */
+    private void watch(final Session session, final String raceId) {
+        WebSocketRaceBroadcaster channel = null;
+        try {
+            channel = raceChannels.find(Long.parseLong(raceId));
+        } catch (NumberFormatException e) {
+            // not a race id
+        }
+        if (channel == null || !channel.subscribe(session)) {
+            sendAndClose(session, "Sorry, race #" + raceId + " is not in progress.");
+            return;
+        }
+        session.getUserProperties().put(RACE_ID_USER_PROP, channel.getRaceId());
+    }
+
+    /**
+     * Creates and starts a race, broadcasted to the specified session and its spectators.
+     * @param session
+     */
+    private void race(final Session session) {
+        final List<Racer> racers = Arrays.asList(racer1, racer2, racer3, racer4);
+        final RacerExecutionMode executionMode;
+        try {
+            executionMode = getRacerExecutionMode(session);
+        } catch (IllegalArgumentException e) {
+            sendAndClose(session, "Sorry, " + e.getMessage() + ".");
+            return;
+        }
+        final WebSocketRaceBroadcaster broadcaster = raceChannels.create(scheduledExecutorService);
+        broadcaster.subscribe(session);
+        session.getUserProperties().put(RACE_ID_USER_PROP, broadcaster.getRaceId());
+        raceEngine.start(racers, executionMode, buildRaceEnvironment(session), broadcaster)
+                .whenComplete((result, failure) -> {
+                    if (failure instanceof RejectedExecutionException) {
+                        broadcaster.unsubscribe(session);
+                        broadcaster.close();
+                        sendAndClose(session, "Sorry, the track is full, please try again later.");
+                        return;
+                    }
+                    if (failure instanceof UnsupportedOperationException) {
+                        broadcaster.unsubscribe(session);
+                        broadcaster.close();
+                        sendAndClose(session, "Sorry, " + failure.getMessage() + ".");
+                        return;
+                    }
+                    if (failure != null) {
+                        failure.printStackTrace();
+                    }
+                    // the sessions are closed once the broadcast ends
+                    broadcaster.close();
+                });
+    }
+
+    /**
+     * Sends a text message to the client, and then closes the session.
+     * @param session
+     * @param message
+     */
+    private void sendAndClose(Session session, String message) {
+        final SessionOutbound outbound = new SessionOutbound(session);
+        outbound.send(message);
+        outbound.close();
+    }
+
+    /**
+     * Retrieves the race's execution mode, from the specified session's request parameters. If not specified the racers will run in platform threads.
+     * @param session
+     * @return
+     * @throws IllegalArgumentException if the request parameter value is not a known execution mode
+     */
+    private RacerExecutionMode getRacerExecutionMode(Session session) {
+        final List<String> values = session.getRequestParameterMap().get(THREADS_PARAM);
+        return RacerExecutionMode.of(values == null || values.isEmpty() ? null : values.get(0), RacerExecutionMode.PLATFORM);
+    }
+
     /**
      * Builds the race's environment, from the specified session.
      * @param session
@@ -105,10 +227,9 @@ public class WebSocketRace {
             environment.put(EnvironmentProperties.SERVER_NAME, hostSplit[0]);
             environment.put(EnvironmentProperties.SERVER_PORT, (hostSplit.length > 1 ? hostSplit[1] : "80"));
         }
-        // extract the root path from the session's request uri, which starting with websockets 2.1 is an absolute uri
-        final String absoluteRequestURI = session.getRequestURI().toString();
-        final String relativeRequestUri = absoluteRequestURI.substring(absoluteRequestURI.indexOf(host)+host.length());
-        final String rootPath = relativeRequestUri.equals(PATH) ? "" : relativeRequestUri.substring(0, (relativeRequestUri.length() - PATH.length()));
+        // extract the root path from the session's request uri path, which excludes the scheme, the host and the query
+        final String requestPath = session.getRequestURI().getPath();
+        final String rootPath = requestPath.endsWith(PATH) ? requestPath.substring(0, requestPath.length() - PATH.length()) : "";
         environment.put(EnvironmentProperties.ROOT_PATH, rootPath);
         return environment;
     }
@@ -20,55 +20,302 @@ import org.jboss.as.quickstarts.threadracing.results.ChampionshipStandings;
 import org.jboss.as.quickstarts.threadracing.results.RaceResult;
 
 import jakarta.websocket.Session;
-import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
- * A {@link org.jboss.as.quickstarts.threadracing.RaceBroadcaster} that sends html/text messages through a Web Socket {@link jakarta.websocket.Session}.
+ * A {@link org.jboss.as.quickstarts.threadracing.RaceBroadcaster} that sends html/text messages through Web Socket {@link jakarta.websocket.Session}s, i.e. a race's channel, which any number of sessions may subscribe.
+ *
+ * The broadcast never blocks the caller: messages are sent asynchronously, through a {@link org.jboss.as.quickstarts.threadracing.SessionOutbound} per subscriber, and the pauses between messages are scheduled, through a {@link java.util.concurrent.ScheduledExecutorService}, and not slept.
+ * Each message is built once and shared by all subscribers, and race progress messages may be coalesced, for subscribers slower than the race.
+ * Sessions subscribing after the race start receive a snapshot of the race state, instead of all messages sent before.
  *
  * @author Eduardo Martins
  */
 public class WebSocketRaceBroadcaster implements RaceBroadcaster {
 
     /**
-     * the web socket's session where messages are sent.
+     * the max number of race progress messages included in the race state snapshot
+     */
+    private static final int SNAPSHOT_PROGRESS_MESSAGES = 8;
+
+    /**
+     * the race's id
+     */
+    private final long raceId;
+
+    /**
+     * the executor used to schedule paused messages
+     */
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * the task to run once the broadcast is closed
+     */
+    private final Runnable closeTask;
+
+    /**
+     * the mapping session id --> subscribed session's outbound queue, guarded by this
+     */
+    private final Map<String, SessionOutbound> subscribers = new LinkedHashMap<>();
+
+    /**
+     * the messages waiting for their pause to end, guarded by this
+     */
+    private final Deque<PausedMessage> pausedMessages = new ArrayDeque<>();
+
+    /**
+     * the last race progress messages sent, guarded by this
+     */
+    private final Deque<String> recentProgress = new ArrayDeque<>();
+
+    /**
+     * the race result and championship standings messages sent, guarded by this
+     */
+    private final List<String> results = new ArrayList<>();
+
+    /**
+     * the description of the race's phase, as known by subscribers, guarded by this
+     */
+    private String phase;
+
+    /**
+     * the description of the race's phase to send with the next message, guarded by this
+     */
+    private String pendingPhase;
+
+    /**
+     * the pause, in milliseconds, to apply before the next message, guarded by this
+     */
+    private long pendingPause;
+
+    /**
+     * the time, in nanoseconds, when the last message is due, guarded by this
+     */
+    private long lastDueTime = System.nanoTime();
+
+    /**
+     * indicates if the broadcast should close the subscribed sessions, once all messages are sent, guarded by this
      */
-    private final Session session;
+    private boolean closeRequested;
+
+    /**
+     * indicates if the subscribed sessions were closed, guarded by this
+     */
+    private boolean closed;
 
     /**
      * Creates a new web socket broadcaster
-     * @param session the session where race progress messages will be sent.
+     * @param raceId the race's id
+     * @param scheduler the executor used to schedule the pauses between messages
+     * @param closeTask the task to run once the broadcast is closed
+     */
+    public WebSocketRaceBroadcaster(long raceId, ScheduledExecutorService scheduler, Runnable closeTask) {
+        this.raceId = raceId;
+        this.scheduler = scheduler;
+        this.closeTask = closeTask;
+    }
+
+    /**
+     * Retrieves the race's id.
+     * @return
+     */
+    public long getRaceId() {
+        return raceId;
+    }
+
+    /**
+     * Subscribes a session, which receives the race state snapshot, if the broadcast has started, and then all further messages.
+     * @param session
+     * @return false if the broadcast is closed, thus the session was not subscribed
+     */
+    public synchronized boolean subscribe(Session session) {
+        if (closed) {
+            return false;
+        }
+        final SessionOutbound outbound = new SessionOutbound(session);
+        if (phase != null) {
+            outbound.send(buildSnapshot());
+        }
+        subscribers.put(session.getId(), outbound);
+        return true;
+    }
+
+    /**
+     * Unsubscribes a session.
+     * @param session
+     */
+    public synchronized void unsubscribe(Session session) {
+        subscribers.remove(session.getId());
+    }
+
+    /**
+     * Retrieves the number of subscribed sessions.
+     * @return
      */
-    public WebSocketRaceBroadcaster(Session session) {
-        this.session = session;
+    public synchronized int getSubscriberCount() {
+        return subscribers.size();
     }
 
     /**
-     * Sends a message to the web socket client.
+     * Builds the race state snapshot, sent to sessions subscribing after the race start.
+     * @return
+     */
+    private String buildSnapshot() {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("<i>Watching race #").append(raceId).append(". ").append(phase).append("...</i><br/><br/>");
+        for (String progress : recentProgress) {
+            sb.append(progress);
+        }
+        for (String result : results) {
+            sb.append(result);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Sends a message to the web socket clients.
      * @param message
      */
     private void sendToClient(String message) {
+        sendToClient(message, false, false);
+    }
+
+    /**
+     * Sends a message to the web socket clients, once the pending pause ends. Messages are handed to the outbound queues while holding this lock, so these are always sent in order.
+     * @param message
+     * @param progress if the message is a race progress message, which may be coalesced with other race progress messages
+     * @param result if the message is a race result or championship standings message, which is part of the race state snapshot
+     */
+    private synchronized void sendToClient(String message, boolean progress, boolean result) {
+        final long now = System.nanoTime();
+        lastDueTime = Math.max(lastDueTime, now) + TimeUnit.MILLISECONDS.toNanos(pendingPause);
+        pendingPause = 0;
+        final PausedMessage pausedMessage = new PausedMessage(message, progress, result, pendingPhase, lastDueTime);
+        pendingPhase = null;
+        if (pausedMessages.isEmpty() && lastDueTime - now <= 0) {
+            send(pausedMessage);
+            return;
+        }
+        pausedMessages.addLast(pausedMessage);
+        if (pausedMessages.size() == 1) {
+            schedule(lastDueTime - now);
+        }
+    }
+
+    /**
+     * Sends a message to all subscribers, and updates the race state. Must be invoked while holding this lock.
+     * @param message
+     */
+    private void send(PausedMessage message) {
+        if (message.phase != null) {
+            phase = message.phase;
+        }
+        if (message.progress) {
+            if (recentProgress.size() == SNAPSHOT_PROGRESS_MESSAGES) {
+                recentProgress.removeFirst();
+            }
+            recentProgress.addLast(message.text);
+        } else if (message.result) {
+            results.add(message.text);
+        }
+        // a copy is iterated, as a failed send may close its session, which unsubscribes it from the same thread
+        for (SessionOutbound outbound : new ArrayList<>(subscribers.values())) {
+            if (message.progress) {
+                outbound.sendCoalescable(message.text);
+            } else {
+                outbound.send(message.text);
+            }
+        }
+    }
+
+    /**
+     * Schedules the sending of the paused messages which are due. Must be invoked while holding this lock.
+     * @param delayNanos
+     */
+    private void schedule(long delayNanos) {
         try {
-            session.getBasicRemote().sendText(message);
-        } catch (IOException e) {
-            e.printStackTrace();
+            scheduler.schedule(this::sendDueMessages, delayNanos, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            // shutting down
+            pausedMessages.clear();
+            closeSubscribers();
         }
     }
 
     /**
-     * Pauses the broadcast for the specified amount of milliseconds.
+     * Sends the paused messages which are due, in order, and schedules the next.
+     */
+    private synchronized void sendDueMessages() {
+        PausedMessage message;
+        while ((message = pausedMessages.peekFirst()) != null) {
+            final long delay = message.dueTime - System.nanoTime();
+            if (delay > 0) {
+                schedule(delay);
+                return;
+            }
+            pausedMessages.pollFirst();
+            send(message);
+        }
+        if (closeRequested) {
+            closeSubscribers();
+        }
+    }
+
+    /**
+     * Closes all subscribed sessions, once their messages are sent. Must be invoked while holding this lock.
+     */
+    private void closeSubscribers() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        // the subscribers are removed first, as closing a session may unsubscribe it from the same thread
+        final List<SessionOutbound> outbounds = new ArrayList<>(subscribers.values());
+        subscribers.clear();
+        for (SessionOutbound outbound : outbounds) {
+            outbound.close();
+        }
+        closeTask.run();
+    }
+
+    /**
+     * Pauses the broadcast for the specified amount of milliseconds, i.e. the next message will be sent only after the pause.
      * @param millis
      */
-    private void pause(long millis) {
-        try {
-            Thread.sleep(millis);
-        } catch (InterruptedException e) {
-            e.printStackTrace();
+    private synchronized void pause(long millis) {
+        pendingPause += millis;
+    }
+
+    /**
+     * Sets the description of the race's phase, known by subscribers once the next message is sent.
+     * @param description
+     */
+    private synchronized void phase(String description) {
+        pendingPhase = description;
+    }
+
+    /**
+     * Ends the broadcast, closing all subscribed sessions once all messages are sent. Sessions may still subscribe until then.
+     */
+    public synchronized void close() {
+        closeRequested = true;
+        if (pausedMessages.isEmpty()) {
+            closeSubscribers();
         }
     }
 
     @Override
     public void start() {
+        phase("The race presentation is on");
+        sendToClient("<i>Race #" + raceId + ", spectators may watch it <a href=\"?" + WebSocketRace.WATCH_PARAM + "=" + raceId + "\" target=\"_blank\">here</a>.</i><br/><br/>");
         sendToClient("Wow, what a crowd today at Threadianopolis... ");
         pause(2000);
         sendToClient("There must be more than a GIGABYTE of thread racing fans going nuts.<br/><br/>");
@@ -78,6 +325,7 @@ public class WebSocketRaceBroadcaster implements RaceBroadcaster {
     @Override
     public void startYourEngines() {
         pause(1000);
+        phase("Racers are starting their threads");
         sendToClient("<br/>Racers, ");
         pause(2000);
         sendToClient("start ");
@@ -94,16 +342,18 @@ public class WebSocketRaceBroadcaster implements RaceBroadcaster {
         pause(2000);
         sendToClient("Set... ");
         pause(2000);
+        phase("The race is on");
         sendToClient("Go! <br/><br/>");
     }
 
     @Override
     public void raceProgress(String msg) {
-        sendToClient(msg + "<br/>");
+        sendToClient(msg + "<br/>", true, false);
     }
 
     @Override
     public void raceEnd() {
+        phase("The race has ended");
         sendToClient("<br/>Please await() the official results ");
         pause(2000);
         sendToClient(":");
@@ -122,7 +372,7 @@ public class WebSocketRaceBroadcaster implements RaceBroadcaster {
             sb.append("<li>" + racer + "</li>");
         }
         sb.append("</ol>");
-        sendToClient(sb.toString());
+        sendToClient(sb.toString(), false, true);
     }
 
     @Override
@@ -134,6 +384,30 @@ public class WebSocketRaceBroadcaster implements RaceBroadcaster {
             sb.append("<li>" + entry.getName() + ", " + entry.getPoints() + " points</li>");
         }
         sb.append("</ol>");
-        sendToClient(sb.toString());
+        sendToClient(sb.toString(), false, true);
+    }
+
+    /**
+     * A message waiting for its pause to end.
+     */
+    private static class PausedMessage {
+
+        private final String text;
+
+        private final boolean progress;
+
+        private final boolean result;
+
+        private final String phase;
+
+        private final long dueTime;
+
+        private PausedMessage(String text, boolean progress, boolean result, String phase, long dueTime) {
+            this.text = text;
+            this.progress = progress;
+            this.result = result;
+            this.phase = phase;
+            this.dueTime = dueTime;
+        }
     }
 }
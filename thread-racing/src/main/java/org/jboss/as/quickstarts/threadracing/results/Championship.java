@@ -0,0 +1,155 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.threadracing.results;
+
+import org.jboss.as.quickstarts.threadracing.Racer;
+import org.jboss.as.quickstarts.threadracing.legends.JimmieThronson;
+import org.jboss.as.quickstarts.threadracing.legends.MichaelThrumacher;
+import org.jboss.as.quickstarts.threadracing.legends.SebastienThroeb;
+import org.jboss.as.quickstarts.threadracing.legends.ValentinoThrossi;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import jakarta.ejb.Lock;
+import jakarta.ejb.LockType;
+import jakarta.ejb.Singleton;
+import jakarta.ejb.Startup;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A singleton EJB which maintains the championship standings, so these never need to be computed from all race results.
+ *
+ * The standings are kept in memory, and each race result added updates both the in-memory standings and the persisted racer's points (see {@link org.jboss.as.quickstarts.threadracing.results.RacerPoints}), thus the cost of a race result is proportional to the number of racers, and not to the number of races run.
+ * On startup the in-memory standings are loaded from the persisted racer's points, or rebuilt, by the database, from all racer's positions if there are no persisted points.
+ */
+@Singleton
+@Startup
+public class Championship {
+
+    /**
+     * the injected JPA entity manager, which may be used to interact with race result's PU
+     */
+    @PersistenceContext
+    private EntityManager em;
+
+    /**
+     * the injected transaction synchronization registry, used to update the in-memory standings only when a race result is committed
+     */
+    @Resource
+    private TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
+    /**
+     * the racers of the races, which have their points persisted on startup
+     */
+    @Inject
+    private JimmieThronson racer1;
+
+    @Inject
+    private MichaelThrumacher racer2;
+
+    @Inject
+    private SebastienThroeb racer3;
+
+    @Inject
+    private ValentinoThrossi racer4;
+
+    /**
+     * the in-memory standings
+     */
+    private final ChampionshipStandings standings = new ChampionshipStandings();
+
+    /**
+     * Loads the in-memory standings, from the persisted racer's points, or from all race results if there are no persisted points.
+     */
+    @PostConstruct
+    void load() {
+        final List<RacerPoints> racersPoints = em.createNamedQuery("RacerPoints.findAll", RacerPoints.class).getResultList();
+        if (!racersPoints.isEmpty()) {
+            for (RacerPoints racerPoints : racersPoints) {
+                standings.addPoints(racerPoints.getRacerName(), racerPoints.getPoints());
+            }
+        } else {
+            // no snapshot, rebuild it
+            for (Object[] row : em.createNamedQuery("RacerPosition.standings", Object[].class).getResultList()) {
+                final String racerName = (String) row[0];
+                final int points = ((Number) row[1]).intValue();
+                standings.addPoints(racerName, points);
+                em.persist(new RacerPoints(racerName, points));
+            }
+        }
+        // the racers without points are persisted too, so the concurrent first races of a racer only update its points
+        final Set<String> racersWithPoints = new HashSet<>();
+        for (ChampionshipStandings.Entry entry : standings.getEntryList()) {
+            racersWithPoints.add(entry.getName());
+        }
+        for (Racer racer : Arrays.asList(racer1, racer2, racer3, racer4)) {
+            if (racersWithPoints.add(racer.getName())) {
+                em.persist(new RacerPoints(racer.getName(), 0));
+            }
+        }
+    }
+
+    /**
+     * Adds a race result to the championship, must be invoked in the transaction which persists the race result.
+     * @param raceResult
+     */
+    @Lock(LockType.READ)
+    public void add(final RaceResult raceResult) {
+        // update the persisted racer's points, in the database, the row's lock taken by the update is what serializes the concurrent races,
+        // until their transactions commit, thus the singleton's lock is not held while waiting for it
+        for (RacerPosition racerPosition : raceResult.getPositions()) {
+            final int updated = em.createNamedQuery("RacerPoints.addPoints")
+                    .setParameter("points", racerPosition.getPoints())
+                    .setParameter("racerName", racerPosition.getRacerName())
+                    .executeUpdate();
+            if (updated == 0) {
+                em.persist(new RacerPoints(racerPosition.getRacerName(), racerPosition.getPoints()));
+            }
+        }
+        // and the in-memory standings, once the transaction commits
+        transactionSynchronizationRegistry.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == Status.STATUS_COMMITTED) {
+                    standings.add(raceResult);
+                }
+            }
+        });
+    }
+
+    /**
+     * Builds the championship standings list. The list is ordered by racer's points, being the first entry the racer currently with more points.
+     * @return
+     */
+    @Lock(LockType.READ)
+    public List<ChampionshipStandings.Entry> getEntryList() {
+        return standings.getEntryList();
+    }
+}
@@ -18,9 +18,9 @@ package org.jboss.as.quickstarts.threadracing.results;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * The championship standings provides a sorted list of (racer's name, points) pairs, representing the how racers stand in the championship, the set of all races run.
@@ -31,7 +31,9 @@ import java.util.Map;
  * 1st place    -> 4 points
  * 2nd place    -> 3 points
  * 3rd place    -> 2 points
- * 4th place    -> 1 points
+ * 4th place and below -> 1 points
+ *
+ * The standings may be updated and read concurrently.
  *
  * @author Eduardo Martins
  */
@@ -40,55 +42,45 @@ public class ChampionshipStandings {
     /**
      * the mapping racer's name --> racer's sum of points obtained in all added race results.
      */
-    private final Map<String, Integer> racerPointsTotals = new HashMap<>();
+    private final Map<String, Integer> racerPointsTotals = new ConcurrentHashMap<>();
 
     /**
-     * Adds all race results.
-     * @param raceResults
+     * Adds a race result.
+     * @param raceResult
      * @return
      */
-    public ChampionshipStandings addAll(RaceResults raceResults) {
-        for (RaceResult raceResult : raceResults.findAll()) {
-            add(raceResult);
+    public ChampionshipStandings add(RaceResult raceResult) {
+        for (RacerPosition racerPosition : raceResult.getPositions()) {
+            addPoints(racerPosition.getRacerName(), racerPosition.getPoints());
         }
         return this;
     }
 
     /**
-     * Adds a race result.
-     * @param raceResult
+     * Adds points to a racer's total.
+     * @param racerName
+     * @param racerPoints
      * @return
      */
-    public ChampionshipStandings add(RaceResult raceResult) {
-        processRacerResult(raceResult.getRacer1Name(), raceResult.getRacer1Position(), racerPointsTotals);
-        processRacerResult(raceResult.getRacer2Name(), raceResult.getRacer2Position(), racerPointsTotals);
-        processRacerResult(raceResult.getRacer3Name(), raceResult.getRacer3Position(), racerPointsTotals);
-        processRacerResult(raceResult.getRacer4Name(), raceResult.getRacer4Position(), racerPointsTotals);
+    public ChampionshipStandings addPoints(String racerName, int racerPoints) {
+        racerPointsTotals.merge(racerName, racerPoints, Integer::sum);
         return this;
     }
 
     /**
-     * Updates the racer's totals with a race's position.
-     * @param racerName
+     * Retrieves the championship points for a race position.
      * @param racerPosition
-     * @param racerPointsTotals
+     * @return
      */
-    private void processRacerResult(String racerName, int racerPosition, Map<String, Integer> racerPointsTotals) {
-        final int racerPoints;
+    public static int getPoints(int racerPosition) {
         if (racerPosition == 1) {
-            racerPoints = 4;
+            return 4;
         } else if (racerPosition == 2) {
-            racerPoints = 3;
+            return 3;
         } else if (racerPosition == 3) {
-            racerPoints = 2;
-        } else {
-            racerPoints = 1;
-        }
-        final Integer racerPointsTotal = racerPointsTotals.get(racerName);
-        if (racerPointsTotal == null) {
-            racerPointsTotals.put(racerName, racerPoints);
+            return 2;
         } else {
-            racerPointsTotals.put(racerName, racerPoints + racerPointsTotal);
+            return 1;
         }
     }
 
@@ -120,7 +112,7 @@ public class ChampionshipStandings {
          * @param name
          * @param points
          */
-        private Entry(String name, Integer points) {
+        public Entry(String name, Integer points) {
             this.name = name;
             this.points = points;
         }
@@ -19,13 +19,13 @@ package org.jboss.as.quickstarts.threadracing.results;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
-import jakarta.persistence.Column;
+import jakarta.persistence.CascadeType;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
-import jakarta.persistence.NamedQueries;
-import jakarta.persistence.NamedQuery;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.OrderBy;
 import jakarta.persistence.Table;
 
 import org.jboss.as.quickstarts.threadracing.Race;
@@ -33,13 +33,12 @@ import org.jboss.as.quickstarts.threadracing.Race;
 /**
  * A race result, a JPA entity.
  *
+ * The racers positions are {@link org.jboss.as.quickstarts.threadracing.results.RacerPosition} entities, with a row per racer, thus a race result may have any number of racers.
+ *
  * @author Eduardo Martins
  */
 @Entity
 @Table(name = "THREAD_RACE_RESULTS")
-@NamedQueries({
-        @NamedQuery(name = "RaceResult.findAll", query = "SELECT e FROM RaceResult e")
-})
 public class RaceResult implements Serializable {
 
     /**
@@ -51,29 +50,12 @@ public class RaceResult implements Serializable {
     @GeneratedValue(strategy = GenerationType.SEQUENCE)
     private int id;
 
-    @Column
-    private String racer1Name;
-
-    @Column
-    private int racer1Position;
-
-    @Column
-    private String racer2Name;
-
-    @Column
-    private int racer2Position;
-
-    @Column
-    private String racer3Name;
-
-    @Column
-    private int racer3Position;
-
-    @Column
-    private String racer4Name;
-
-    @Column
-    private int racer4Position;
+    /**
+     * the racers positions
+     */
+    @OneToMany(mappedBy = "raceResult", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("racerPosition")
+    private List<RacerPosition> positions = new ArrayList<>();
 
     public int getId() {
         return id;
@@ -83,68 +65,12 @@ public class RaceResult implements Serializable {
         this.id = id;
     }
 
-    public String getRacer1Name() {
-        return racer1Name;
-    }
-
-    public void setRacer1Name(String racer1Name) {
-        this.racer1Name = racer1Name;
-    }
-
-    public int getRacer1Position() {
-        return racer1Position;
-    }
-
-    public void setRacer1Position(int racer1Position) {
-        this.racer1Position = racer1Position;
-    }
-
-    public String getRacer2Name() {
-        return racer2Name;
-    }
-
-    public void setRacer2Name(String racer2Name) {
-        this.racer2Name = racer2Name;
+    public List<RacerPosition> getPositions() {
+        return positions;
     }
 
-    public int getRacer2Position() {
-        return racer2Position;
-    }
-
-    public void setRacer2Position(int racer2Position) {
-        this.racer2Position = racer2Position;
-    }
-
-    public String getRacer3Name() {
-        return racer3Name;
-    }
-
-    public void setRacer3Name(String racer3Name) {
-        this.racer3Name = racer3Name;
-    }
-
-    public int getRacer3Position() {
-        return racer3Position;
-    }
-
-    public void setRacer3Position(int racer3Position) {
-        this.racer3Position = racer3Position;
-    }
-
-    public String getRacer4Name() {
-        return racer4Name;
-    }
-
-    public void setRacer4Name(String racer4Name) {
-        this.racer4Name = racer4Name;
-    }
-
-    public int getRacer4Position() {
-        return racer4Position;
-    }
-
-    public void setRacer4Position(int racer4Position) {
-        this.racer4Position = racer4Position;
+    public void setPositions(List<RacerPosition> positions) {
+        this.positions = positions;
     }
 
     /**
@@ -153,27 +79,8 @@ public class RaceResult implements Serializable {
      * @param registration
      * @param position
      */
-    public void setPosition(Race.Registration registration, int position) {
-        switch (registration.getNumber()) {
-            case 1:
-                setRacer1Name(registration.getRacer().getName());
-                setRacer1Position(position);
-                break;
-            case 2:
-                setRacer2Name(registration.getRacer().getName());
-                setRacer2Position(position);
-                break;
-            case 3:
-                setRacer3Name(registration.getRacer().getName());
-                setRacer3Position(position);
-                break;
-            case 4:
-                setRacer4Name(registration.getRacer().getName());
-                setRacer4Position(position);
-                break;
-            default:
-                throw new IllegalStateException("registration number must be 1-4");
-        }
+    public synchronized void setPosition(Race.Registration registration, int position) {
+        positions.add(new RacerPosition(this, registration.getRacer().getName(), position));
     }
 
     /**
@@ -183,10 +90,9 @@ public class RaceResult implements Serializable {
      */
     public List<String> getSortedRacers() {
         List<String> result = new ArrayList<>();
-        result.add(getRacerWithPosition(1));
-        result.add(getRacerWithPosition(2));
-        result.add(getRacerWithPosition(3));
-        result.add(getRacerWithPosition(4));
+        for (int i = 1; i <= positions.size(); i++) {
+            result.add(getRacerWithPosition(i));
+        }
         return result;
     }
 
@@ -197,16 +103,11 @@ public class RaceResult implements Serializable {
      * @return
      */
     public String getRacerWithPosition(int i) {
-        if (racer1Position == i) {
-            return racer1Name;
-        } else if (racer2Position == i) {
-            return racer2Name;
-        } else if (racer3Position == i) {
-            return racer3Name;
-        } else if (racer4Position == i) {
-            return racer4Name;
-        } else {
-            return null;
+        for (RacerPosition position : positions) {
+            if (position.getRacerPosition() == i) {
+                return position.getRacerName();
+            }
         }
+        return null;
     }
 }
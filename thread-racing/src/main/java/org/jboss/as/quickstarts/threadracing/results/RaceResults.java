@@ -17,8 +17,10 @@
 package org.jboss.as.quickstarts.threadracing.results;
 
 import jakarta.ejb.Stateless;
+import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -37,18 +39,109 @@ public class RaceResults {
     private EntityManager em;
 
     /**
-     * Adds a race result.
+     * the championship, updated on each race result added
+     */
+    @Inject
+    private Championship championship;
+
+    /**
+     * Adds a race result, and updates the championship standings.
      * @param e
      */
     public void add(RaceResult e) {
         em.persist(e);
+        championship.add(e);
+    }
+
+    /**
+     * Retrieves the championship standings.
+     * @return
+     */
+    public List<ChampionshipStandings.Entry> getChampionshipStandings() {
+        return championship.getEntryList();
+    }
+
+    /**
+     * Finds a page of the championship standings, computed by the database from all racer's positions.
+     * @param firstResult the position of the first standings entry to retrieve, starting at 0
+     * @param maxResults the max number of standings entries to retrieve
+     * @return
+     */
+    public List<ChampionshipStandings.Entry> findChampionshipStandings(int firstResult, int maxResults) {
+        final List<Object[]> rows = em.createNamedQuery("RacerPosition.standings", Object[].class)
+                .setFirstResult(firstResult)
+                .setMaxResults(maxResults)
+                .getResultList();
+        final List<ChampionshipStandings.Entry> entries = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            entries.add(new ChampionshipStandings.Entry((String) row[0], ((Number) row[1]).intValue()));
+        }
+        return entries;
     }
 
     /**
-     * Finds all race results.
+     * Finds a page of a racer's history, i.e. the racer's positions, starting with the most recent race.
+     * @param racerName
+     * @param firstResult the position of the first racer's position to retrieve, starting at 0
+     * @param maxResults the max number of racer's positions to retrieve
      * @return
      */
-    public List<RaceResult> findAll() {
-        return em.createNamedQuery("RaceResult.findAll", RaceResult.class).getResultList();
+    public List<RacerHistoryEntry> findRacerHistory(String racerName, int firstResult, int maxResults) {
+        final List<Object[]> rows = em.createNamedQuery("RacerPosition.racerHistory", Object[].class)
+                .setParameter("racerName", racerName)
+                .setFirstResult(firstResult)
+                .setMaxResults(maxResults)
+                .getResultList();
+        final List<RacerHistoryEntry> entries = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            entries.add(new RacerHistoryEntry(((Number) row[0]).intValue(), ((Number) row[1]).intValue(), ((Number) row[2]).intValue()));
+        }
+        return entries;
+    }
+
+    /**
+     * An entry of a racer's history, i.e. the racer's position in a race result.
+     */
+    public static class RacerHistoryEntry {
+
+        private final int raceResultId;
+        private final int racerPosition;
+        private final int points;
+
+        /**
+         *
+         * @param raceResultId
+         * @param racerPosition
+         * @param points
+         */
+        public RacerHistoryEntry(int raceResultId, int racerPosition, int points) {
+            this.raceResultId = raceResultId;
+            this.racerPosition = racerPosition;
+            this.points = points;
+        }
+
+        /**
+         *
+         * @return
+         */
+        public int getRaceResultId() {
+            return raceResultId;
+        }
+
+        /**
+         *
+         * @return
+         */
+        public int getRacerPosition() {
+            return racerPosition;
+        }
+
+        /**
+         *
+         * @return
+         */
+        public int getPoints() {
+            return points;
+        }
     }
 }
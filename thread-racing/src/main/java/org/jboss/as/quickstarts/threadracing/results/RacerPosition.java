@@ -0,0 +1,120 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.threadracing.results;
+
+import java.io.Serializable;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedQueries;
+import jakarta.persistence.NamedQuery;
+import jakarta.persistence.Table;
+
+/**
+ * A racer's position in a race result, a JPA entity.
+ *
+ * The championship points obtained with the position are also stored, and the table is indexed by racer's name, with the race result, so standings and racer's history are computed by the database, and a page of a racer's history is read from the index in order.
+ */
+@Entity
+@Table(name = "THREAD_RACE_RESULT_POSITIONS", indexes = {
+        @Index(name = "THREAD_RACE_RESULT_POSITIONS_RACER_IDX", columnList = "racerName, raceResultId"),
+        @Index(name = "THREAD_RACE_RESULT_POSITIONS_RESULT_IDX", columnList = "raceResultId")
+})
+@NamedQueries({
+        @NamedQuery(name = "RacerPosition.standings", query = "SELECT p.racerName, SUM(p.points) FROM RacerPosition p GROUP BY p.racerName ORDER BY SUM(p.points) DESC, p.racerName"),
+        @NamedQuery(name = "RacerPosition.racerHistory", query = "SELECT p.raceResult.id, p.racerPosition, p.points FROM RacerPosition p WHERE p.racerName = :racerName ORDER BY p.raceResult.id DESC")
+})
+public class RacerPosition implements Serializable {
+
+    /**
+     *
+     */
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    private long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "raceResultId")
+    private RaceResult raceResult;
+
+    @Column(nullable = false)
+    private String racerName;
+
+    @Column
+    private int racerPosition;
+
+    @Column
+    private int points;
+
+    public RacerPosition() {
+    }
+
+    public RacerPosition(RaceResult raceResult, String racerName, int racerPosition) {
+        this.raceResult = raceResult;
+        this.racerName = racerName;
+        this.racerPosition = racerPosition;
+        this.points = ChampionshipStandings.getPoints(racerPosition);
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public RaceResult getRaceResult() {
+        return raceResult;
+    }
+
+    public void setRaceResult(RaceResult raceResult) {
+        this.raceResult = raceResult;
+    }
+
+    public String getRacerName() {
+        return racerName;
+    }
+
+    public void setRacerName(String racerName) {
+        this.racerName = racerName;
+    }
+
+    public int getRacerPosition() {
+        return racerPosition;
+    }
+
+    public void setRacerPosition(int racerPosition) {
+        this.racerPosition = racerPosition;
+    }
+
+    public int getPoints() {
+        return points;
+    }
+
+    public void setPoints(int points) {
+        this.points = points;
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.threadracing.results;
+
+import jakarta.ws.rs.ApplicationPath;
+import jakarta.ws.rs.core.Application;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * The JAX-RS app which exposes the race results, through the {@link org.jboss.as.quickstarts.threadracing.results.ResultsService}.
+ */
+@ApplicationPath(ResultsApplication.PATH)
+public class ResultsApplication extends Application {
+
+    /**
+     * the jaxrs app path
+     */
+    public static final String PATH = "results";
+
+    /**
+     * Retrieves the app's services, only the results service, as the deployment has other JAX-RS apps.
+     * @return
+     */
+    @Override
+    public Set<Class<?>> getClasses() {
+        return Collections.singleton(ResultsService.class);
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.threadracing.results;
+
+import jakarta.inject.Inject;
+import jakarta.json.Json;
+import jakarta.json.JsonArray;
+import jakarta.json.JsonArrayBuilder;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+
+/**
+ * A REST service which retrieves pages of the championship standings and of a racer's history, both computed by the database from the racer's positions, e.g. results/standings?first=0&amp;max=10 or results/racers/Jimmie%20Thronson?first=10&amp;max=10
+ */
+@Path("/")
+@Produces(MediaType.APPLICATION_JSON)
+public class ResultsService {
+
+    /**
+     * the max number of entries of a page
+     */
+    public static final int MAX_RESULTS = 100;
+
+    @Inject
+    private RaceResults raceResults;
+
+    /**
+     * Retrieves a page of the championship standings, ordered by racer's points.
+     * @param first the position of the first entry, starting at 0
+     * @param max the max number of entries
+     * @return
+     */
+    @GET
+    @Path("standings")
+    public JsonArray getStandings(@QueryParam("first") @DefaultValue("0") int first, @QueryParam("max") @DefaultValue("10") int max) {
+        checkPage(first, max);
+        final JsonArrayBuilder array = Json.createArrayBuilder();
+        for (ChampionshipStandings.Entry entry : raceResults.findChampionshipStandings(first, max)) {
+            array.add(Json.createObjectBuilder()
+                    .add("racer", entry.getName())
+                    .add("points", entry.getPoints()));
+        }
+        return array.build();
+    }
+
+    /**
+     * Retrieves a page of a racer's history, starting with the most recent race.
+     * @param racerName
+     * @param first the position of the first entry, starting at 0
+     * @param max the max number of entries
+     * @return
+     */
+    @GET
+    @Path("racers/{racer}")
+    public JsonArray getRacerHistory(@PathParam("racer") String racerName, @QueryParam("first") @DefaultValue("0") int first, @QueryParam("max") @DefaultValue("10") int max) {
+        checkPage(first, max);
+        final JsonArrayBuilder array = Json.createArrayBuilder();
+        for (RaceResults.RacerHistoryEntry entry : raceResults.findRacerHistory(racerName, first, max)) {
+            array.add(Json.createObjectBuilder()
+                    .add("race", entry.getRaceResultId())
+                    .add("position", entry.getRacerPosition())
+                    .add("points", entry.getPoints()));
+        }
+        return array.build();
+    }
+
+    private static void checkPage(int first, int max) {
+        if (first < 0) {
+            throw new BadRequestException("first must not be negative");
+        }
+        if (max < 1 || max > MAX_RESULTS) {
+            throw new BadRequestException("max must be between 1 and " + MAX_RESULTS);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.threadracing.stage.batch;
+
+import jakarta.batch.runtime.BatchStatus;
+import jakarta.enterprise.context.ApplicationScoped;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * The completion notification facility for the race's Batch job executions, which provides a {@link java.util.concurrent.CompletableFuture} per job execution.
+ *
+ * The futures are completed by the {@link org.jboss.as.quickstarts.threadracing.stage.batch.BatchRaceStageJobListener}, once a job execution ends, so the race stage just needs to block on the future instead of polling the Batch runtime.
+ * Since a job execution may end before the race stage asks for its future, either side may be the one creating it.
+ * A race stage which stops waiting leaves a marker instead, removed by the job execution's late end, so no future is left behind.
+ */
+@ApplicationScoped
+public class BatchJobCompletions {
+
+    /**
+     * the mapping job execution id --> future completed with the job execution's final batch status
+     */
+    private final ConcurrentMap<Long, CompletableFuture<BatchStatus>> completions = new ConcurrentHashMap<>();
+
+    /**
+     * the marker of a job execution which nobody awaits anymore, e.g. the wait timed out
+     */
+    private static final CompletableFuture<BatchStatus> ABANDONED = new CompletableFuture<>();
+
+    /**
+     * Notifies that the job execution with the specified id ended.
+     * @param executionId
+     * @param batchStatus the job execution's final batch status
+     */
+    public void complete(long executionId, BatchStatus batchStatus) {
+        // completed atomically with the map update, so a wait which ends meanwhile sees it done
+        completions.compute(executionId, (k, future) -> {
+            if (future == ABANDONED) {
+                return null;
+            }
+            if (future == null) {
+                future = new CompletableFuture<>();
+            }
+            future.complete(batchStatus);
+            return future;
+        });
+    }
+
+    /**
+     * Awaits the end of the job execution with the specified id.
+     * @param executionId
+     * @param timeout
+     * @param unit
+     * @return the job execution's final batch status
+     * @throws Exception if the job execution did not end in time, or the wait was interrupted
+     */
+    public BatchStatus await(long executionId, long timeout, TimeUnit unit) throws Exception {
+        final CompletableFuture<BatchStatus> future = completions.computeIfAbsent(executionId, k -> new CompletableFuture<>());
+        try {
+            return future.get(timeout, unit);
+        } catch (TimeoutException e) {
+            throw new TimeoutException("Batch job execution " + executionId + " did not end in " + timeout + " " + unit);
+        } finally {
+            // removed if the job execution ended, otherwise marked as abandoned, to be removed once it ends
+            completions.compute(executionId, (k, f) -> f == future && !future.isDone() ? ABANDONED : null);
+        }
+    }
+}
@@ -22,8 +22,9 @@ import org.jboss.as.quickstarts.threadracing.stage.RaceStage;
 import jakarta.batch.operations.JobOperator;
 import jakarta.batch.runtime.BatchRuntime;
 import jakarta.batch.runtime.BatchStatus;
-import jakarta.batch.runtime.JobExecution;
+import jakarta.inject.Inject;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
 
 /**
  * The Batch 1.0 race stage, which starts a job execution and waits for it to complete.
@@ -31,22 +32,33 @@ import java.util.Properties;
  * Apps deploy Batch jobs by packaging the related XML descriptors in META-INF/batch-jobs. The name of these Batch jobs, which is needed to start their execution, is the name of the XML file, without the ".xml".
  * This app deploys a Batch job named "race", so the XML descriptor file is named "race.xml" and put in "src/main/resources/META-INF/batch-jobs" directory of the project.
  *
+ * The job's end is notified by the job listener {@link org.jboss.as.quickstarts.threadracing.stage.batch.BatchRaceStageJobListener}, through the {@link org.jboss.as.quickstarts.threadracing.stage.batch.BatchJobCompletions}, so the racer's thread just blocks until the job execution ends.
  *
  * @author Eduardo Martins
  */
 public class BatchRaceStage implements RaceStage {
 
+    /**
+     * the max time, in seconds, to wait for a job execution to end
+     */
+    private static final long JOB_EXECUTION_TIMEOUT = 60;
+
+    /**
+     * cdi injection of the job executions completion notifications
+     */
+    @Inject
+    private BatchJobCompletions completions;
+
     @Override
     public void run(Race.Registration registration) throws Exception {
         // retrieve the job operator
         JobOperator jobOperator = BatchRuntime.getJobOperator();
         // start the race.xml job
-        Long executionId = jobOperator.start("race", new Properties());
-        // would be nice if the job start would provide a Future object wrt the job execution, perhaps something for next spec revision
-        // just check every 1ms if the job status is completed
-        JobExecution jobExecution = jobOperator.getJobExecution(executionId);
-        while (jobExecution.getBatchStatus() != BatchStatus.COMPLETED) {
-            Thread.sleep(1);
+        long executionId = jobOperator.start("race", new Properties());
+        // the job start does not provide a Future object wrt the job execution, so the job's listener completes one for us
+        final BatchStatus batchStatus = completions.await(executionId, JOB_EXECUTION_TIMEOUT, TimeUnit.SECONDS);
+        if (batchStatus != BatchStatus.COMPLETED) {
+            throw new IllegalStateException("Batch job execution " + executionId + " ended with status " + batchStatus);
         }
     }
 }
@@ -0,0 +1,55 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.threadracing.stage.batch;
+
+import jakarta.batch.api.listener.AbstractJobListener;
+import jakarta.batch.runtime.BatchStatus;
+import jakarta.batch.runtime.context.JobContext;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+
+/**
+ * The race batch job listener, which notifies the {@link org.jboss.as.quickstarts.threadracing.stage.batch.BatchJobCompletions} when a job execution ends.
+ */
+@Named
+public class BatchRaceStageJobListener extends AbstractJobListener {
+
+    /**
+     * the job context, provided by the Batch runtime
+     */
+    @Inject
+    private JobContext jobContext;
+
+    /**
+     * the completions to notify
+     */
+    @Inject
+    private BatchJobCompletions completions;
+
+    @Override
+    public void afterJob() {
+        // the batch status is only set as COMPLETED after all job listeners run, thus any status other than failed or stopped means a successful execution
+        final BatchStatus batchStatus = jobContext.getBatchStatus();
+        final BatchStatus finalStatus;
+        if (batchStatus == BatchStatus.FAILED || batchStatus == BatchStatus.STOPPING || batchStatus == BatchStatus.STOPPED || batchStatus == BatchStatus.ABANDONED) {
+            finalStatus = batchStatus == BatchStatus.STOPPING ? BatchStatus.STOPPED : batchStatus;
+        } else {
+            finalStatus = BatchStatus.COMPLETED;
+        }
+        completions.complete(jobContext.getExecutionId(), finalStatus);
+    }
+}
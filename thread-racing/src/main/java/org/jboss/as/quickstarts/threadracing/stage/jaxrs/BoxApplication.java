@@ -18,6 +18,8 @@ package org.jboss.as.quickstarts.threadracing.stage.jaxrs;
 
 import jakarta.ws.rs.ApplicationPath;
 import jakarta.ws.rs.core.Application;
+import java.util.Collections;
+import java.util.Set;
 
 /**
  * A class extending {@link jakarta.ws.rs.core.Application} is the portable way to define JAX-RS 2.0 REST Services, and the {@link jakarta.ws.rs.ApplicationPath} defines the common path of such services.
@@ -31,4 +33,13 @@ public class BoxApplication extends Application {
      */
     public static final String PATH = "box";
 
+    /**
+     * Retrieves the app's services, only the box service, as the deployment has other JAX-RS apps.
+     * @return
+     */
+    @Override
+    public Set<Class<?>> getClasses() {
+        return Collections.singleton(BoxService.class);
+    }
+
 }
@@ -0,0 +1,195 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.threadracing.stage.jaxrs;
+
+import org.jboss.as.quickstarts.threadracing.RaceEngine;
+import org.jboss.resteasy.client.jaxrs.ResteasyClientBuilder;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ManagedExecutorService;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.ClientBuilder;
+import jakarta.ws.rs.client.WebTarget;
+import jakarta.ws.rs.core.Response;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The client of the {@link org.jboss.as.quickstarts.threadracing.stage.jaxrs.BoxService}, shared by all racers.
+ *
+ * The JAX-RS client, and its pool of keep-alive connections, is built once and closed when the app stops. The pool and timeouts may be configured through the system properties with the {@link #PROPERTY_PREFIX} prefix, e.g. org.jboss.as.quickstarts.threadracing.jaxrs.connectionPoolSize
+ * Async calls are executed by the default {@link jakarta.enterprise.concurrent.ManagedExecutorService} instance.
+ */
+@ApplicationScoped
+public class BoxClient {
+
+    /**
+     * the prefix of the system properties which configure the client
+     */
+    public static final String PROPERTY_PREFIX = "org.jboss.as.quickstarts.threadracing.jaxrs.";
+
+    /**
+     * the name of the system property which sets the max number of pooled connections
+     */
+    public static final String CONNECTION_POOL_SIZE_PROPERTY = PROPERTY_PREFIX + "connectionPoolSize";
+
+    /**
+     * the name of the system property which sets the max number of pooled connections per route, i.e. to each box service host
+     */
+    public static final String MAX_POOLED_PER_ROUTE_PROPERTY = PROPERTY_PREFIX + "maxPooledPerRoute";
+
+    /**
+     * the name of the system property which sets the time, in milliseconds, a pooled connection is kept alive
+     */
+    public static final String CONNECTION_TTL_PROPERTY = PROPERTY_PREFIX + "connectionTTL";
+
+    /**
+     * the name of the system property which sets the connect timeout, in milliseconds
+     */
+    public static final String CONNECT_TIMEOUT_PROPERTY = PROPERTY_PREFIX + "connectTimeout";
+
+    /**
+     * the name of the system property which sets the read timeout, in milliseconds
+     */
+    public static final String READ_TIMEOUT_PROPERTY = PROPERTY_PREFIX + "readTimeout";
+
+    /**
+     * the number of racers in a race, see {@link org.jboss.as.quickstarts.threadracing.WebSocketRace}, which may all do a pit stop at the same time
+     */
+    public static final int RACERS_PER_RACE = 4;
+
+    /**
+     * the default time, in milliseconds, a pooled connection is kept alive
+     */
+    public static final long DEFAULT_CONNECTION_TTL = 60000;
+
+    /**
+     * the default connect timeout, in milliseconds
+     */
+    public static final long DEFAULT_CONNECT_TIMEOUT = 5000;
+
+    /**
+     * the default read timeout, in milliseconds
+     */
+    public static final long DEFAULT_READ_TIMEOUT = 10000;
+
+    /**
+     * the default managed executor service instance, which executes async calls
+     */
+    @Resource
+    private ManagedExecutorService executorService;
+
+    /**
+     * the shared JAX-RS client
+     */
+    private Client client;
+
+    /**
+     * the max number of pit stop web targets cached, the pit stop uri is built from the Host header of the race's request, thus there may be a few uris for the same box service
+     */
+    public static final int MAX_PIT_STOP_TARGETS = 16;
+
+    /**
+     * the mapping pit stop uri --> web target, with the racer path template, which evicts the least recently used target once there are more than {@link #MAX_PIT_STOP_TARGETS}
+     */
+    private final Map<String, WebTarget> pitStopTargets = Collections.synchronizedMap(new LinkedHashMap<String, WebTarget>(MAX_PIT_STOP_TARGETS * 2, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, WebTarget> eldest) {
+            return size() > MAX_PIT_STOP_TARGETS;
+        }
+    });
+
+    @PostConstruct
+    void init() {
+        final int connectionPoolSize = positive(CONNECTION_POOL_SIZE_PROPERTY, Integer.getInteger(CONNECTION_POOL_SIZE_PROPERTY, defaultConnectionPoolSize()));
+        client = ((ResteasyClientBuilder) ClientBuilder.newBuilder())
+                .connectionPoolSize(connectionPoolSize)
+                // by default all pooled connections may target the same box service host
+                .maxPooledPerRoute(positive(MAX_POOLED_PER_ROUTE_PROPERTY, Integer.getInteger(MAX_POOLED_PER_ROUTE_PROPERTY, connectionPoolSize)))
+                .connectionTTL(positive(CONNECTION_TTL_PROPERTY, Long.getLong(CONNECTION_TTL_PROPERTY, DEFAULT_CONNECTION_TTL)), TimeUnit.MILLISECONDS)
+                .connectTimeout(positive(CONNECT_TIMEOUT_PROPERTY, Long.getLong(CONNECT_TIMEOUT_PROPERTY, DEFAULT_CONNECT_TIMEOUT)), TimeUnit.MILLISECONDS)
+                .readTimeout(positive(READ_TIMEOUT_PROPERTY, Long.getLong(READ_TIMEOUT_PROPERTY, DEFAULT_READ_TIMEOUT)), TimeUnit.MILLISECONDS)
+                // the managed executor service's lifecycle is the server's, not the client's
+                .executorService(executorService, false)
+                .build();
+    }
+
+    @PreDestroy
+    void close() {
+        pitStopTargets.clear();
+        client.close();
+    }
+
+    /**
+     * Retrieves the default max number of pooled connections, a connection for each racer of the max number of concurrent races, as set by the {@link org.jboss.as.quickstarts.threadracing.RaceEngine#MAX_CONCURRENT_RACES_PROPERTY} system property.
+     * @return
+     */
+    private static int defaultConnectionPoolSize() {
+        return Integer.getInteger(RaceEngine.MAX_CONCURRENT_RACES_PROPERTY, RaceEngine.DEFAULT_MAX_CONCURRENT_RACES) * RACERS_PER_RACE;
+    }
+
+    private static <T extends Number> T positive(String property, T value) {
+        if (value.longValue() < 1) {
+            throw new IllegalStateException(property + " must be a positive number");
+        }
+        return value;
+    }
+
+    /**
+     * Retrieves the web target for the specified racer's pit stop.
+     * @param pitStopURI
+     * @param racer
+     * @return
+     */
+    private WebTarget pitStopTarget(String pitStopURI, String racer) {
+        return pitStopTargets.computeIfAbsent(pitStopURI, uri -> client.target(uri).path("{racer}")).resolveTemplate("racer", racer);
+    }
+
+    /**
+     * Does a pit stop, i.e. sends a request to the box service.
+     * @param pitStopURI
+     * @param racer
+     * @return the response status
+     */
+    public int pitStop(String pitStopURI, String racer) {
+        // the response is closed, so its connection is released back to the pool
+        try (Response response = pitStopTarget(pitStopURI, racer).request().get()) {
+            return response.getStatus();
+        }
+    }
+
+    /**
+     * Does a pit stop asynchronously, i.e. sends a request to the box service without blocking the caller.
+     * @param pitStopURI
+     * @param racer
+     * @return a stage which completes with the response status
+     */
+    public CompletionStage<Integer> pitStopAsync(String pitStopURI, String racer) {
+        return pitStopTarget(pitStopURI, racer).request().rx().get()
+                .thenApply(response -> {
+                    try (Response r = response) {
+                        return r.getStatus();
+                    }
+                });
+    }
+}
@@ -20,25 +20,53 @@ import org.jboss.as.quickstarts.threadracing.EnvironmentProperties;
 import org.jboss.as.quickstarts.threadracing.Race;
 import org.jboss.as.quickstarts.threadracing.stage.RaceStage;
 
-import jakarta.ws.rs.client.Client;
-import jakarta.ws.rs.client.ClientBuilder;
-import jakarta.ws.rs.client.WebTarget;
-import jakarta.ws.rs.core.Response;
+import jakarta.inject.Inject;
 import java.util.Map;
-import org.jboss.resteasy.client.jaxrs.ResteasyClientBuilder;
+import java.util.concurrent.CompletionStage;
 
 /**
  * The JAX-RS 2.0 race stage implements the race's boxes, which a racer uses to do a pit stop.
  *
+ * The pit stop requests are sent through the shared {@link org.jboss.as.quickstarts.threadracing.stage.jaxrs.BoxClient}, thus the stage duration is the one of the box service, and not the one of building a client and connecting.
+ *
  * @author Eduardo Martins
  */
 public class JAXRSRaceStage implements RaceStage {
 
+    /**
+     * CDI injection of the box service client
+     */
+    @Inject
+    private BoxClient boxClient;
+
     @Override
     public void run(Race.Registration registration) throws Exception {
-        // build the REST service uri from race's environment
+        // get current time
+        final long now = System.currentTimeMillis();
+        // box box box, i.e. send a request to the Box rest service, with the racers name provided as param 'racer'
+        final int status = boxClient.pitStop(getPitStopURI(registration), registration.getRacer().getName());
+        pitStopDone(registration, status, now);
+    }
+
+    /**
+     * Runs the stage asynchronously, i.e. the pit stop request is sent without blocking the racer.
+     * @param registration
+     * @return a stage which completes once the pit stop is done
+     */
+    public CompletionStage<Void> runAsync(Race.Registration registration) {
+        final long now = System.currentTimeMillis();
+        return boxClient.pitStopAsync(getPitStopURI(registration), registration.getRacer().getName())
+                .thenAccept(status -> pitStopDone(registration, status, now));
+    }
+
+    /**
+     * Builds the REST service uri from race's environment.
+     * @param registration
+     * @return
+     */
+    private static String getPitStopURI(Race.Registration registration) {
         final Map<String, String> environment = registration.getEnvironment();
-        final String pitStopURI = new StringBuilder("http://")
+        return new StringBuilder("http://")
                 .append(environment.get(EnvironmentProperties.SERVER_NAME))
                 .append(':')
                 .append(environment.get(EnvironmentProperties.SERVER_PORT))
@@ -47,23 +75,19 @@ public class JAXRSRaceStage implements RaceStage {
                 .append(BoxApplication.PATH)
                 .append("/pitStop")
                 .toString();
-        // create and setup the new standard JAX-RS client (and its web target)
-        final Client client = ((ResteasyClientBuilder) ClientBuilder.newBuilder())
-                    .build();
-        try {
-            final WebTarget target = client.target(pitStopURI);
-            // get current time
-            long now = System.currentTimeMillis();
-            // box box box, i.e. send a request to the Box rest service, with the racers name provided as param 'racer'
-            final Response response = target.path("{racer}").resolveTemplate("racer", registration.getRacer().getName()).request().get();
-            if (response.getStatus() != 200) {
-                throw new IllegalStateException("PIT STOP failure trouble " + response.getStatus());
-            } else {
-                // broadcast a msg indicating the duration of the pit stop operation
-                registration.broadcast("PIT STOP in " + (System.currentTimeMillis() - now) + "ms");
-            }
-        } finally {
-            client.close();
+    }
+
+    /**
+     * Completes the pit stop.
+     * @param registration
+     * @param status the response status
+     * @param start the time the pit stop started
+     */
+    private static void pitStopDone(Race.Registration registration, int status, long start) {
+        if (status != 200) {
+            throw new IllegalStateException("PIT STOP failure trouble " + status);
         }
+        // broadcast a msg indicating the duration of the pit stop operation
+        registration.broadcast("PIT STOP in " + (System.currentTimeMillis() - start) + "ms");
     }
 }
@@ -19,49 +19,41 @@ package org.jboss.as.quickstarts.threadracing.stage.jms;
 import org.jboss.as.quickstarts.threadracing.Race;
 import org.jboss.as.quickstarts.threadracing.stage.RaceStage;
 
-import jakarta.annotation.Resource;
-import jakarta.jms.ConnectionFactory;
-import jakarta.jms.JMSConsumer;
-import jakarta.jms.JMSContext;
-import jakarta.jms.Queue;
-import jakarta.jms.TemporaryQueue;
+import jakarta.inject.Inject;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
 
 /**
- * The JMS race stage is a JMS client which sends a request containing a text message, and waits for a response with same text, using the request/response trough a temporary queue pattern.
+ * The JMS race stage is a JMS client which sends a request containing a text message, and waits for a response with same text, using the request/reply through a shared reply queue and correlation ids pattern.
  *
  * @author Eduardo Martins
  */
 public class JMSRaceStage implements RaceStage {
 
     /**
-     * injection of JMS message listener's queue, through JNDI lookup
+     * CDI injection of the JMS request/reply facility
      */
-    @Resource(lookup = JMSRaceStageMessageListener.REQUEST_QUEUE)
-    private Queue requestQueue;
-    @Resource(lookup = "java:comp/DefaultJMSConnectionFactory")
-    private ConnectionFactory cf;
+    @Inject
+    private JMSRequestReply requestReply;
 
     @Override
     public void run(Race.Registration registration) throws Exception {
-        try (JMSContext jmsContext = cf.createContext()) {
-            // create response tmp queue
-            final TemporaryQueue responseQueue = jmsContext.createTemporaryQueue();
-            // send request
-            final String request = UUID.randomUUID().toString();
-            jmsContext.createProducer()
-                    .setJMSReplyTo(responseQueue)
-                    .send(requestQueue, request);
-            // receive response
-            try (JMSConsumer consumer = jmsContext.createConsumer(responseQueue)) {
-                String response = consumer.receiveBody(String.class);
-                if (response == null) {
-                    registration.aborted(new IllegalStateException("Message processing timed out"));
-                } else if (!response.equals(request)) {
-                    registration.aborted(new IllegalStateException("Response content does not match the request. Response: " + response + ", request: " + request));
-                }
+        // send request
+        final String request = UUID.randomUUID().toString();
+        // receive response
+        final String response;
+        try {
+            response = requestReply.request(request).get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                // thrown, so the racer aborts the race once, without running the next stages
+                throw new IllegalStateException("Message processing timed out", e.getCause());
             }
+            throw e;
+        }
+        if (!response.equals(request)) {
+            throw new IllegalStateException("Response content does not match the request. Response: " + response + ", request: " + request);
         }
     }
 }
-
@@ -27,7 +27,7 @@ import jakarta.jms.MessageListener;
 import jakarta.jms.TextMessage;
 
 /**
- * The JMS race stage {@link jakarta.jms.MessageListener}, which simply returns back the received message's text.
+ * The JMS race stage {@link jakarta.jms.MessageListener}, which simply returns back the received message's text, with the received message's correlation id.
  *
  * This class, being a container managed class, creates a JMS destination through annotation {@link jakarta.jms.JMSDestinationDefinition}.
  *
@@ -52,9 +52,12 @@ public class JMSRaceStageMessageListener implements MessageListener {
 
     @Override
     public void onMessage(Message message) {
-        // just echo the msg
+        // just echo the msg, the correlation id lets the requester match the reply with its request
         try {
-            jmsContext.createProducer().send(message.getJMSReplyTo(), ((TextMessage) message).getText());
+            final String correlationId = message.getJMSCorrelationID();
+            jmsContext.createProducer()
+                    .setJMSCorrelationID(correlationId != null ? correlationId : message.getJMSMessageID())
+                    .send(message.getJMSReplyTo(), ((TextMessage) message).getText());
         } catch (JMSException e) {
             e.printStackTrace();
         }
@@ -0,0 +1,173 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.threadracing.stage.jms;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.JMSContext;
+import jakarta.jms.JMSProducer;
+import jakarta.jms.JMSRuntimeException;
+import jakarta.jms.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The JMS request/reply facility used by the {@link org.jboss.as.quickstarts.threadracing.stage.jms.JMSRaceStage}.
+ *
+ * All requests share a single reply queue, and each reply is matched to its request through the JMS correlation id, by the {@link org.jboss.as.quickstarts.threadracing.stage.jms.JMSRaceStageReplyListener}, which completes the request's future.
+ * Requests made concurrently are sent in batches, i.e. the thread sending a request also sends the ones queued meanwhile, through the same {@link jakarta.jms.JMSContext}.
+ * A reply which does not arrive within the timeout, by default {@link #DEFAULT_REPLY_TIMEOUT} milliseconds, a value which may be changed through the system property {@link #REPLY_TIMEOUT_PROPERTY}, completes the future with a {@link java.util.concurrent.TimeoutException}.
+ */
+@ApplicationScoped
+public class JMSRequestReply {
+
+    /**
+     * the name of the system property which sets the reply timeout, in milliseconds
+     */
+    public static final String REPLY_TIMEOUT_PROPERTY = "org.jboss.as.quickstarts.threadracing.jms.replyTimeout";
+
+    /**
+     * the default reply timeout, in milliseconds
+     */
+    public static final long DEFAULT_REPLY_TIMEOUT = 10000;
+
+    /**
+     * injection of JMS message listener's queue, through JNDI lookup
+     */
+    @Resource(lookup = JMSRaceStageMessageListener.REQUEST_QUEUE)
+    private Queue requestQueue;
+
+    /**
+     * injection of the reply listener's queue, through JNDI lookup
+     */
+    @Resource(lookup = JMSRaceStageReplyListener.REPLY_QUEUE)
+    private Queue replyQueue;
+
+    @Resource(lookup = "java:comp/DefaultJMSConnectionFactory")
+    private ConnectionFactory cf;
+
+    /**
+     * the reply timeout, in milliseconds
+     */
+    private long replyTimeout;
+
+    /**
+     * the mapping correlation id --> future of the request's reply, for each request waiting for its reply
+     */
+    private final ConcurrentMap<String, CompletableFuture<String>> pendingReplies = new ConcurrentHashMap<>();
+
+    /**
+     * the requests waiting to be sent
+     */
+    private final ConcurrentLinkedQueue<Request> pendingRequests = new ConcurrentLinkedQueue<>();
+
+    /**
+     * indicates if a thread is sending the pending requests
+     */
+    private final AtomicBoolean sending = new AtomicBoolean();
+
+    @PostConstruct
+    void init() {
+        replyTimeout = Long.getLong(REPLY_TIMEOUT_PROPERTY, DEFAULT_REPLY_TIMEOUT);
+        if (replyTimeout < 1) {
+            throw new IllegalStateException(REPLY_TIMEOUT_PROPERTY + " must be a positive number");
+        }
+    }
+
+    /**
+     * Sends a request with the specified text.
+     * @param text
+     * @return a future which completes with the reply's text, or exceptionally if the request could not be sent, or the reply timed out
+     */
+    public CompletableFuture<String> request(String text) {
+        final String correlationId = UUID.randomUUID().toString();
+        final CompletableFuture<String> reply = new CompletableFuture<>();
+        pendingReplies.put(correlationId, reply);
+        reply.orTimeout(replyTimeout, TimeUnit.MILLISECONDS)
+                .whenComplete((result, failure) -> pendingReplies.remove(correlationId));
+        pendingRequests.add(new Request(correlationId, text));
+        sendPendingRequests();
+        return reply;
+    }
+
+    /**
+     * Completes the request with the specified correlation id, if it is still waiting for its reply.
+     * @param correlationId
+     * @param text the reply's text
+     * @return false if there is no such request waiting for its reply, e.g. it timed out
+     */
+    public boolean reply(String correlationId, String text) {
+        final CompletableFuture<String> reply = correlationId == null ? null : pendingReplies.remove(correlationId);
+        return reply != null && reply.complete(text);
+    }
+
+    /**
+     * Sends the pending requests, unless another thread is already sending.
+     */
+    private void sendPendingRequests() {
+        while (!pendingRequests.isEmpty() && sending.compareAndSet(false, true)) {
+            try (JMSContext jmsContext = cf.createContext()) {
+                final JMSProducer producer = jmsContext.createProducer().setJMSReplyTo(replyQueue);
+                Request request;
+                while ((request = pendingRequests.poll()) != null) {
+                    try {
+                        producer.setJMSCorrelationID(request.correlationId).send(requestQueue, request.text);
+                    } catch (JMSRuntimeException e) {
+                        failed(request, e);
+                    }
+                }
+            } catch (JMSRuntimeException e) {
+                // the context could not be created, fail all requests queued so far
+                Request request;
+                while ((request = pendingRequests.poll()) != null) {
+                    failed(request, e);
+                }
+            } finally {
+                sending.set(false);
+            }
+        }
+    }
+
+    private void failed(Request request, Exception e) {
+        final CompletableFuture<String> reply = pendingReplies.remove(request.correlationId);
+        if (reply != null) {
+            reply.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * A request waiting to be sent.
+     */
+    private static class Request {
+
+        private final String correlationId;
+
+        private final String text;
+
+        private Request(String correlationId, String text) {
+            this.correlationId = correlationId;
+            this.text = text;
+        }
+    }
+}
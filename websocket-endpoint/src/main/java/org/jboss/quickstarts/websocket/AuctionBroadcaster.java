@@ -0,0 +1,187 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.quickstarts.websocket;
+
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import jakarta.websocket.EncodeException;
+import jakarta.websocket.Session;
+
+import org.jboss.quickstarts.websocket.model.Auction;
+import org.jboss.quickstarts.websocket.model.BidStatus;
+import org.jboss.quickstarts.websocket.model.Bidding;
+
+// This class notifies the sessions of an auction about its Bidding. It runs
+// a task with the scheduler, once per tick, which encodes what changed since
+// the last tick, and sends the same encoding to all sessions asynchronously. Sessions
+// which joined meanwhile receive the whole Bidding instead. The task is not
+// scheduled again if the auction has no sessions, or if it has nothing to
+// send and no countdown, until a session joins or sends a message.
+public class AuctionBroadcaster {
+
+    static final long TICK_MILLIS = 200;
+
+    private final Logger logger = Logger.getLogger(getClass().getName());
+
+    private final Auction auction;
+
+    private final ScheduledExecutorService scheduler;
+
+    private final BiddingEncoder encoder = new BiddingEncoder();
+
+    private final Set<Session> sessions = ConcurrentHashMap.newKeySet();
+
+    // the sessions which need the whole Bidding
+    private final Queue<Session> joined = new ConcurrentLinkedQueue<>();
+
+    // the pages of the bid history requested by sessions
+    private final Queue<BidHistoryRequest> bidHistoryRequests = new ConcurrentLinkedQueue<>();
+
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    // the Bidding last sent to the sessions, only accessed by the task
+    private Bidding lastSent;
+
+    public AuctionBroadcaster(Auction auction, ScheduledExecutorService scheduler) {
+        this.auction = auction;
+        this.scheduler = scheduler;
+    }
+
+    public void join(Session session) {
+        joined.add(session);
+        wakeUp();
+    }
+
+    public void leave(Session session) {
+        joined.remove(session);
+        sessions.remove(session);
+    }
+
+    // sends a page of the bid history to the session, with the bids before the specified sequence number
+    public void requestBidHistory(Session session, Integer before, Integer count) {
+        bidHistoryRequests.add(new BidHistoryRequest(session, before, count));
+        wakeUp();
+    }
+
+    // schedules the task, if not scheduled already, e.g. after the Bidding changed
+    public void wakeUp() {
+        if (scheduled.compareAndSet(false, true)) {
+            scheduler.schedule(this::tick, TICK_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void tick() {
+        try {
+            // getting the Bidding also expires it, once the countdown ends
+            Bidding bidding = auction.getBidding();
+            String snapshot = null;
+            if (bidding != lastSent && !sessions.isEmpty()) {
+                String message = lastSent != null ? BiddingEncoder.encodeDelta(lastSent, bidding) : null;
+                if (message == null) {
+                    snapshot = encoder.encode(bidding);
+                    message = snapshot;
+                }
+                for (Session session : sessions) {
+                    send(session, message);
+                }
+            }
+            lastSent = bidding;
+            Session session;
+            while ((session = joined.poll()) != null) {
+                if (snapshot == null) {
+                    snapshot = encoder.encode(bidding);
+                }
+                send(session, snapshot);
+                sessions.add(session);
+            }
+            BidHistoryRequest request;
+            while ((request = bidHistoryRequests.poll()) != null) {
+                send(request.session, BiddingEncoder.encodeBidHistory(bidding, request.before, request.count));
+            }
+        } catch (RuntimeException | EncodeException e) {
+            logger.log(Level.SEVERE, "Failed to notify the sessions of auction " + auction.getId(), e);
+        } finally {
+            // even if an Error was thrown, otherwise the task would never be scheduled again
+            reschedule();
+        }
+    }
+
+    private void reschedule() {
+        try {
+            if (isIdle()) {
+                scheduled.set(false);
+                // a session may have joined, or the Bidding changed, before the flag was reset
+                if (!isIdle()) {
+                    wakeUp();
+                }
+            } else {
+                scheduler.schedule(this::tick, TICK_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        } catch (RuntimeException e) {
+            // e.g. the scheduler is shutting down, the next session joining or message schedules the task again
+            scheduled.set(false);
+            logger.log(Level.SEVERE, "Failed to schedule the notification of the sessions of auction " + auction.getId(), e);
+        }
+    }
+
+    private boolean isIdle() {
+        if (!joined.isEmpty() || !bidHistoryRequests.isEmpty()) {
+            return false;
+        }
+        if (sessions.isEmpty()) {
+            return true;
+        }
+        // a started bidding expires once its countdown ends
+        Bidding bidding = auction.getBidding();
+        return bidding == lastSent && bidding.getBidStatus() != BidStatus.STARTED;
+    }
+
+    private void send(Session session, String message) {
+        if (!session.isOpen()) {
+            leave(session);
+            return;
+        }
+        session.getAsyncRemote().sendText(message, result -> {
+            if (!result.isOK()) {
+                logger.log(Level.FINE, "Failed to notify session " + session.getId(), result.getException());
+            }
+        });
+    }
+
+    private static class BidHistoryRequest {
+
+        private final Session session;
+
+        private final Integer before;
+
+        private final Integer count;
+
+        private BidHistoryRequest(Session session, Integer before, Integer count) {
+            this.session = session;
+            this.before = before;
+            this.count = count;
+        }
+    }
+}
@@ -17,13 +17,15 @@
 package org.jboss.quickstarts.websocket;
 
 import java.io.IOException;
-import java.util.Collections;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.logging.Logger;
+import java.util.regex.Pattern;
 
-import jakarta.annotation.PostConstruct;
-import jakarta.websocket.EncodeException;
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ManagedScheduledExecutorService;
+import jakarta.websocket.CloseReason;
 import jakarta.websocket.OnClose;
 import jakarta.websocket.OnError;
 import jakarta.websocket.OnMessage;
@@ -31,8 +33,7 @@ import jakarta.websocket.OnOpen;
 import jakarta.websocket.Session;
 import jakarta.websocket.server.ServerEndpoint;
 
-import org.jboss.quickstarts.websocket.model.Bid;
-import org.jboss.quickstarts.websocket.model.Bidding;
+import org.jboss.quickstarts.websocket.model.Auction;
 import org.jboss.quickstarts.websocket.model.BiddingFactory;
 
 /**
@@ -40,6 +41,10 @@ import org.jboss.quickstarts.websocket.model.BiddingFactory;
  * <p/>
  *
  * This class produces a Websocket endpoint to receive messages from clients.
+ * <p/>
+ *
+ * Each session takes part in the auction specified by the {@code auction} query parameter, e.g. {@code /bidsocket?auction=2}, or in the default auction if not specified.
+ * The sessions of each auction are notified by its {@link AuctionBroadcaster}.
  *
  * @author <a href="mailto:benevides@redhat.com">Rafael Benevides</a>
  *
@@ -47,64 +52,78 @@ import org.jboss.quickstarts.websocket.model.BiddingFactory;
 @ServerEndpoint(value = "/bidsocket", encoders = { BiddingEncoder.class }, decoders = { MessageDecoder.class })
 public class BidWebSocketEndpoint {
 
+    // the query parameter with the id of the session's auction
+    public static final String AUCTION_PARAM = "auction";
+
+    private static final Pattern AUCTION_ID_PATTERN = Pattern.compile("[A-Za-z0-9_-]{1,32}");
+
+    private static final String BROADCASTER_USER_PROP = "broadcaster";
+
+    private static final String AUCTION_USER_PROP = "auction";
+
+    private static ConcurrentMap<String, AuctionBroadcaster> broadcasters = new ConcurrentHashMap<>();
+
     private Logger logger = Logger.getLogger(getClass().getName());
 
-    private static Set<Session> clients = Collections.synchronizedSet(new HashSet<>());
-
-    private Runnable intervalNotifier;
-
-    // It starts a Thread that notifies all sessions each second
-    @PostConstruct
-    public void startIntervalNotifier() {
-        logger.info("Starting interval notifier");
-        intervalNotifier = new Runnable() {
-
-            @Override
-            public void run() {
-                try {
-                    while (true) {
-                        Thread.sleep(1000);
-                        notifyAllSessions(BiddingFactory.getBidding());
-                    }
-                } catch (Exception e) {
-                    e.printStackTrace();
-                }
-            }
-        };
-        new Thread(intervalNotifier).start();
-    }
+    // all broadcasters share the default managed scheduled executor service
+    @Resource
+    private ManagedScheduledExecutorService scheduler;
 
-    // store the session once that it's opened
+    // join the session to its auction once that it's opened
     @OnOpen
-    public void onOpen(Session session) {
+    public void onOpen(Session session) throws IOException {
         logger.info("New websocket session opened: " + session.getId());
-        clients.add(session);
-
+        String auctionId = BiddingFactory.DEFAULT_AUCTION_ID;
+        List<String> auctionParam = session.getRequestParameterMap().get(AUCTION_PARAM);
+        if (auctionParam != null && !auctionParam.isEmpty()) {
+            auctionId = auctionParam.get(0);
+            if (!AUCTION_ID_PATTERN.matcher(auctionId).matches()) {
+                session.close(new CloseReason(CloseReason.CloseCodes.CANNOT_ACCEPT, "Invalid auction id"));
+                return;
+            }
+        }
+        Auction auction = BiddingFactory.getAuction(auctionId);
+        if (auction == null) {
+            session.close(new CloseReason(CloseReason.CloseCodes.TRY_AGAIN_LATER, "Too many auctions"));
+            return;
+        }
+        // there is one broadcaster per auction, thus the broadcasters are bounded as the auctions
+        AuctionBroadcaster broadcaster = broadcasters.computeIfAbsent(auctionId, id -> new AuctionBroadcaster(auction, scheduler));
+        session.getUserProperties().put(AUCTION_USER_PROP, auction);
+        session.getUserProperties().put(BROADCASTER_USER_PROP, broadcaster);
+        broadcaster.join(session);
     }
 
     // remove the session after it's closed
     @OnClose
     public void onClose(Session session) {
         logger.info("Websoket session closed: " + session.getId());
-        clients.remove(session);
+        AuctionBroadcaster broadcaster = getBroadcaster(session);
+        if (broadcaster != null) {
+            broadcaster.leave(session);
+        }
     }
 
     // This method receives a Message that contains a command
     // The Message object is "decoded" by the MessageDecoder class
     @OnMessage
-    public void onMessage(Session session, Message message) throws IOException, EncodeException {
+    public void onMessage(Session session, Message message) {
+        Auction auction = (Auction) session.getUserProperties().get(AUCTION_USER_PROP);
         if (message.getCommand().equals("newBid")) {
-            Bidding bidding = BiddingFactory.getBidding();
-            bidding.addBid(new Bid(session.getId(), message.getBidValue()));
+            auction.bid(session.getId(), message.getBidValue());
         }
         if (message.getCommand().equals("buyItNow")) {
-            Bidding bidding = BiddingFactory.getBidding();
-            bidding.buyItNow();
+            auction.buyItNow();
         }
         if (message.getCommand().equals("resetBid")) {
-            BiddingFactory.resetBidding();
+            auction.reset();
+        }
+        if (message.getCommand().equals("bidHistory")) {
+            getBroadcaster(session).requestBidHistory(session, message.getBefore(), message.getCount());
+            return;
         }
-        notifyAllSessions(BiddingFactory.getBidding());
+        // the changes are sent to all sessions of the auction on the next tick
+        getBroadcaster(session).wakeUp();
     }
 
     // Exception handling
@@ -113,11 +132,7 @@ public class BidWebSocketEndpoint {
         t.printStackTrace();
     }
 
-    // This method sends the same Bidding object to all opened sessions
-    private void notifyAllSessions(Bidding bidding) throws EncodeException, IOException {
-        for (Session s : clients) {
-            s.getBasicRemote().sendObject(bidding);
-        }
-
+    private static AuctionBroadcaster getBroadcaster(Session session) {
+        return (AuctionBroadcaster) session.getUserProperties().get(BROADCASTER_USER_PROP);
     }
 }
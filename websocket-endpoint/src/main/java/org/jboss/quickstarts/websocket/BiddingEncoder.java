@@ -17,10 +17,14 @@
 package org.jboss.quickstarts.websocket;
 
 import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import jakarta.json.Json;
-import jakarta.json.JsonArrayBuilder;
-import jakarta.json.JsonObjectBuilder;
+import jakarta.json.JsonObject;
 import jakarta.json.JsonWriter;
 import jakarta.websocket.EncodeException;
 import jakarta.websocket.Encoder.Text;
@@ -28,11 +32,29 @@ import jakarta.websocket.EndpointConfig;
 
 import org.jboss.quickstarts.websocket.model.Bid;
 import org.jboss.quickstarts.websocket.model.Bidding;
+import org.jboss.quickstarts.websocket.model.Item;
 
 // This class is responsible to encode the Bidding object in a String
-// that will be sent to clients
+// that will be sent to clients, either the whole Bidding, or the changes
+// since the Bidding previously sent
+//
+// Biddings are immutable, thus the encodings are cached: the item and each
+// bid are encoded only once, and the whole Bidding is encoded once per change,
+// in a String shared by all sessions
+//
+// The whole Bidding only includes the most recent bids, and the number of bids,
+// so its size does not grow with the bids, older bids are fetched in pages
 public class BiddingEncoder implements Text<Bidding> {
 
+    // the number of bids included in the whole Bidding, and in a delta
+    static final int LAST_BIDS = 10;
+
+    // the maximum number of bids in a page of the bid history
+    static final int MAX_BID_HISTORY_PAGE = 50;
+
+    // the encodings by item, one for each auction, thus bounded by BiddingFactory.MAX_AUCTIONS
+    private static final ConcurrentMap<Item, Encoding> encodings = new ConcurrentHashMap<>();
+
     @Override
     public void destroy() {
 
@@ -45,36 +67,160 @@ public class BiddingEncoder implements Text<Bidding> {
 
     @Override
     public String encode(Bidding bidding) throws EncodeException {
-        // It uses the JSON-P API to create a JSON representation
-        JsonObjectBuilder jsonBuilder = Json.createObjectBuilder()
-            .add("item", Json.createObjectBuilder()
-                .add("buyNowPrice", bidding.getItem().getBuyNowPrice())
-                .add("description", bidding.getItem().getDescription())
-                .add("imagePath", bidding.getItem().getImagePath())
-                .add("title", bidding.getItem().getTitle())
-                .build())
-            .add("bidStatus", bidding.getBidStatus().toString())
-            .add("currentPrice", bidding.getCurrentPrice())
-            .add("secondsLeft", 0);
-        if (bidding.getDueDate() != null) {
-            jsonBuilder.add("dueDate", bidding.getDueDate().getTime());
-        }
-        if (bidding.getSecondsLeft() != null) {
-            jsonBuilder.add("secondsLeft", bidding.getSecondsLeft());
-        }
-        JsonArrayBuilder jsonBidArray = Json.createArrayBuilder();
-        for (Bid bid : bidding.getBids()) {
-            jsonBidArray.add(Json.createObjectBuilder()
-                .add("dateTime", bid.getDateTime().getTime())
-                .add("value", bid.getValue())
-                .add("id", bid.getId())
-                .build());
-        }
-        jsonBuilder.add("bids", jsonBidArray);
+        return getEncoding(bidding).encode(bidding);
+    }
+
+    // It encodes only the fields that changed since the previous Bidding, and
+    // the new bids, which clients merge into the Bidding they have, or returns
+    // null if the Bidding does not follow the previous one, e.g. after a reset
+    public static String encodeDelta(Bidding previous, Bidding bidding) {
+        return getEncoding(bidding).encodeDelta(previous, bidding);
+    }
+
+    // It encodes a page of the bid history, with the bids before the specified
+    // sequence number, or the most recent ones if not specified
+    public static String encodeBidHistory(Bidding bidding, Integer before, Integer count) {
+        return getEncoding(bidding).encodeBidHistory(bidding, before, count);
+    }
+
+    private static Encoding getEncoding(Bidding bidding) {
+        return encodings.computeIfAbsent(bidding.getItem(), Encoding::new);
+    }
+
+    // It uses the JSON-P API to create a JSON representation
+    private static String toString(JsonObject jsonObject) {
         StringWriter stWriter = new StringWriter();
         JsonWriter jsonWriter = Json.createWriter(stWriter);
-        jsonWriter.writeObject(jsonBuilder.build());
+        jsonWriter.writeObject(jsonObject);
         jsonWriter.close();
         return stWriter.toString();
     }
+
+    private static class Encoding {
+
+        private final String item;
+
+        // the encoded bids of the last Bidding encoded, from the oldest to the most recent
+        private final List<String> bids = new ArrayList<>();
+
+        private Bidding bidding;
+
+        // the last Bidding encoded, except the seconds left, which change while the Bidding does not
+        private String biddingPrefix;
+
+        private String biddingEncoded;
+
+        private int biddingSecondsLeft;
+
+        private Encoding(Item item) {
+            this.item = BiddingEncoder.toString(Json.createObjectBuilder()
+                .add("buyNowPrice", item.getBuyNowPrice())
+                .add("description", item.getDescription())
+                .add("imagePath", item.getImagePath())
+                .add("title", item.getTitle())
+                .build());
+        }
+
+        synchronized String encode(Bidding bidding) {
+            update(bidding);
+            if (biddingPrefix == null) {
+                StringBuilder json = new StringBuilder(item.length() + 128 + LAST_BIDS * 64)
+                    .append("{\"item\":").append(item)
+                    .append(",\"bidStatus\":\"").append(bidding.getBidStatus()).append('"')
+                    .append(",\"currentPrice\":").append(bidding.getCurrentPrice());
+                if (bidding.getDueDate() != null) {
+                    json.append(",\"dueDate\":").append(bidding.getDueDate().getTime());
+                }
+                json.append(",\"bids\":");
+                appendBids(json, bids.size(), Math.min(bids.size(), LAST_BIDS));
+                json.append(",\"bidCount\":").append(bids.size());
+                biddingPrefix = json.append(",\"secondsLeft\":").toString();
+            }
+            int secondsLeft = getSecondsLeft(bidding);
+            if (biddingEncoded == null || biddingSecondsLeft != secondsLeft) {
+                biddingEncoded = biddingPrefix + secondsLeft + "}";
+                biddingSecondsLeft = secondsLeft;
+            }
+            return biddingEncoded;
+        }
+
+        synchronized String encodeDelta(Bidding previous, Bidding bidding) {
+            List<Bid> newBids = bidding.getBidsSince(previous);
+            if (newBids == null) {
+                return null;
+            }
+            update(bidding);
+            StringBuilder json = new StringBuilder("{");
+            if (previous.getBidStatus() != bidding.getBidStatus()) {
+                json.append("\"bidStatus\":\"").append(bidding.getBidStatus()).append("\",");
+            }
+            if (!previous.getCurrentPrice().equals(bidding.getCurrentPrice())) {
+                json.append("\"currentPrice\":").append(bidding.getCurrentPrice()).append(',');
+            }
+            if (!Objects.equals(previous.getDueDate(), bidding.getDueDate()) || previous.getBidStatus() != bidding.getBidStatus()) {
+                json.append("\"dueDate\":").append(bidding.getDueDate() != null ? bidding.getDueDate().getTime() : null)
+                    .append(",\"secondsLeft\":").append(getSecondsLeft(bidding)).append(',');
+            }
+            if (!newBids.isEmpty()) {
+                json.append("\"newBids\":");
+                appendBids(json, bids.size(), Math.min(newBids.size(), LAST_BIDS));
+                json.append(",\"bidCount\":").append(bids.size()).append(',');
+            }
+            if (json.length() > 1) {
+                json.setLength(json.length() - 1);
+            }
+            return json.append('}').toString();
+        }
+
+        synchronized String encodeBidHistory(Bidding bidding, Integer before, Integer count) {
+            update(bidding);
+            int end = before == null || before > bids.size() ? bids.size() : Math.max(before - 1, 0);
+            int pageSize = count == null ? LAST_BIDS : Math.max(0, Math.min(count, MAX_BID_HISTORY_PAGE));
+            StringBuilder json = new StringBuilder("{\"bidHistory\":");
+            appendBids(json, end, Math.min(pageSize, end));
+            return json.append(",\"bidCount\":").append(bids.size()).append('}').toString();
+        }
+
+        // encodes the bids added since the Bidding last encoded, or all bids if it does not follow it
+        private void update(Bidding bidding) {
+            if (bidding == this.bidding) {
+                return;
+            }
+            List<Bid> newBids = this.bidding != null ? bidding.getBidsSince(this.bidding) : null;
+            if (newBids == null) {
+                bids.clear();
+                newBids = new ArrayList<>(bidding.getBids());
+            }
+            for (int i = newBids.size() - 1; i >= 0; i--) {
+                Bid bid = newBids.get(i);
+                // the sequence number of a bid is its position in the bid history
+                bids.add(BiddingEncoder.toString(Json.createObjectBuilder()
+                    .add("seq", bids.size() + 1)
+                    .add("dateTime", bid.getDateTime().getTime())
+                    .add("value", bid.getValue())
+                    .add("id", bid.getId())
+                    .build()));
+            }
+            this.bidding = bidding;
+            biddingPrefix = null;
+            biddingEncoded = null;
+        }
+
+        // appends the array of the bids before the specified end of the bid history, from the most recent
+        private void appendBids(StringBuilder json, int end, int count) {
+            json.append('[');
+            for (int i = end - 1; i >= end - count; i--) {
+                json.append(bids.get(i));
+                if (i > end - count) {
+                    json.append(',');
+                }
+            }
+            json.append(']');
+        }
+
+        private static int getSecondsLeft(Bidding bidding) {
+            Integer secondsLeft = bidding.getSecondsLeft();
+            return secondsLeft != null ? secondsLeft : 0;
+        }
+    }
 }
@@ -23,9 +23,21 @@ public class Message {
 
     private Integer bidValue;
 
+    // the bidHistory command fetches the bids before this sequence number
+    private Integer before;
+
+    // the number of bids fetched by the bidHistory command
+    private Integer count;
+
     public Message(String command, Integer bidValue) {
+        this(command, bidValue, null, null);
+    }
+
+    public Message(String command, Integer bidValue, Integer before, Integer count) {
         this.command = command;
         this.bidValue = bidValue;
+        this.before = before;
+        this.count = count;
     }
 
     public String getCommand() {
@@ -36,4 +48,12 @@ public class Message {
         return bidValue;
     }
 
+    public Integer getBefore() {
+        return before;
+    }
+
+    public Integer getCount() {
+        return count;
+    }
+
 }
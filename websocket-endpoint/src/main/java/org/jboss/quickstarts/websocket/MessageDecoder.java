@@ -44,7 +44,15 @@ public class MessageDecoder implements Decoder.Text<Message> {
         if (jsonObject.containsKey("bidValue")) {
             bidValue = jsonObject.getInt("bidValue");
         }
-        return new Message(command, bidValue);
+        Integer before = null;
+        if (jsonObject.containsKey("before")) {
+            before = jsonObject.getInt("before");
+        }
+        Integer count = null;
+        if (jsonObject.containsKey("count")) {
+            count = jsonObject.getInt("count");
+        }
+        return new Message(command, bidValue, before, count);
     }
 
     @Override
@@ -0,0 +1,77 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.quickstarts.websocket.model;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+//This class represents an auction, identified by its id, which holds the current Bidding of its item.
+//The Bidding is replaced through compare-and-set, without locks, so no bid is lost when several
+//clients bid at the same time, and bids on different auctions never contend
+public class Auction {
+
+    private final String id;
+
+    private final Item item;
+
+    private final Integer startPrice;
+
+    private final AtomicReference<Bidding> bidding;
+
+    public Auction(String id, Item item, Integer startPrice) {
+        this.id = id;
+        this.item = item;
+        this.startPrice = startPrice;
+        this.bidding = new AtomicReference<>(new Bidding(item, startPrice));
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    // obtain the current Bidding, expired if there's no more seconds left for the due date
+    public Bidding getBidding() {
+        return update(current -> current.expire(System.currentTimeMillis()));
+    }
+
+    public Bidding bid(String bidderId, Integer value) {
+        final Bid bid = new Bid(bidderId, value);
+        return update(current -> current.expire(bid.getDateTime().getTime()).addBid(bid));
+    }
+
+    public Bidding buyItNow() {
+        return update(current -> current.expire(System.currentTimeMillis()).buyItNow());
+    }
+
+    // creates a new bidding
+    public Bidding reset() {
+        final Bidding reset = new Bidding(item, startPrice);
+        bidding.set(reset);
+        return reset;
+    }
+
+    // applies the change to the current Bidding, retrying if another change was applied meanwhile
+    private Bidding update(UnaryOperator<Bidding> change) {
+        while (true) {
+            final Bidding current = bidding.get();
+            final Bidding changed = change.apply(current);
+            if (changed == current || bidding.compareAndSet(current, changed)) {
+                return changed;
+            }
+        }
+    }
+}
@@ -20,11 +20,11 @@ import java.util.Date;
 
 public class Bid {
 
-    private Date dateTime;
+    private final Date dateTime;
 
-    private Integer value;
+    private final Integer value;
 
-    private String id;
+    private final String id;
 
     public Bid(String id, Integer value) {
         this.id = id;
@@ -0,0 +1,101 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.quickstarts.websocket.model;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+//This class represents the bids of a Bidding, from the most recent to the oldest. It is immutable, adding
+//a bid creates a new history which shares all the previous bids, so a new Bidding does not copy its bids
+final class BidHistory extends AbstractList<Bid> {
+
+    static final BidHistory EMPTY = new BidHistory(null, null, 0);
+
+    private final Bid bid;
+
+    private final BidHistory previous;
+
+    private final int size;
+
+    private BidHistory(Bid bid, BidHistory previous, int size) {
+        this.bid = bid;
+        this.previous = previous;
+        this.size = size;
+    }
+
+    BidHistory with(Bid bid) {
+        return new BidHistory(bid, this, size + 1);
+    }
+
+    // Returns the bids added after the specified history, from the most recent to the oldest, or null if this
+    // history does not follow it, e.g. because the bidding was reset meanwhile
+    List<Bid> since(BidHistory older) {
+        if (older.size > size) {
+            return null;
+        }
+        final List<Bid> newer = new ArrayList<>(size - older.size);
+        BidHistory history = this;
+        while (history.size > older.size) {
+            newer.add(history.bid);
+            history = history.previous;
+        }
+        return history == older ? newer : null;
+    }
+
+    @Override
+    public Bid get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        BidHistory history = this;
+        for (int i = 0; i < index; i++) {
+            history = history.previous;
+        }
+        return history.bid;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Iterator<Bid> iterator() {
+        return new Iterator<Bid>() {
+
+            private BidHistory next = BidHistory.this;
+
+            @Override
+            public boolean hasNext() {
+                return next.size > 0;
+            }
+
+            @Override
+            public Bid next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                final Bid bid = next.bid;
+                next = next.previous;
+                return bid;
+            }
+        };
+    }
+}
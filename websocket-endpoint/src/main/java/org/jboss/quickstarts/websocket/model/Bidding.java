@@ -16,40 +16,36 @@
  */
 package org.jboss.quickstarts.websocket.model;
 
-import java.util.Calendar;
-import java.util.Comparator;
 import java.util.Date;
-import java.util.GregorianCalendar;
-import java.util.Set;
-import java.util.TreeSet;
+import java.util.List;
 
-//This class represents the Bidding of an item
-public class Bidding {
+//This class represents the Bidding of an item. It is immutable, each change returns a new Bidding, so
+//the Auction accepts concurrent changes with a compare-and-set of its current Bidding
+public final class Bidding {
 
     static final long ONE_MINUTE_IN_MILLIS = 60000;// millisecs
 
-    private Item item = null;
+    private final Item item;
 
-    private BidStatus bidStatus = BidStatus.NOT_STARTED;
+    private final BidStatus bidStatus;
 
-    private Date dueDate = null;
+    private final Date dueDate;
 
-    private Integer currentPrice = null;
+    private final Integer currentPrice;
 
-    private Integer secondsLeft = null;
-
-    // The bids uses a comparator to order it based on the its date.
-    private Set<Bid> bids = new TreeSet<Bid>(new Comparator<Bid>() {
-
-        @Override
-        public int compare(Bid o1, Bid o2) {
-            return o2.getDateTime().compareTo(o1.getDateTime());
-        }
-    });
+    // The bids are ordered from the most recent to the oldest, as accepted
+    private final BidHistory bids;
 
     public Bidding(Item item, Integer currentPrice) {
+        this(item, BidStatus.NOT_STARTED, null, currentPrice, BidHistory.EMPTY);
+    }
+
+    private Bidding(Item item, BidStatus bidStatus, Date dueDate, Integer currentPrice, BidHistory bids) {
         this.item = item;
+        this.bidStatus = bidStatus;
+        this.dueDate = dueDate;
         this.currentPrice = currentPrice;
+        this.bids = bids;
     }
 
     public BidStatus getBidStatus() {
@@ -64,30 +60,42 @@ public class Bidding {
         return dueDate;
     }
 
-    public Set<Bid> getBids() {
+    public List<Bid> getBids() {
         return bids;
     }
 
-    public void addBid(Bid bid) {
-        this.getBids().add(bid);
-        // Just update the price if the bidding is not SOLD or EXPIRED
-        if (!bidStatus.equals(BidStatus.SOLD) || !bidStatus.equals(BidStatus.EXPIRED)) {
-            this.currentPrice = getCurrentPrice() + bid.getValue();
+    // Returns the bids added since the previous Bidding, or null if this Bidding does not follow it
+    public List<Bid> getBidsSince(Bidding previous) {
+        return previous.item == item ? bids.since(previous.bids) : null;
+    }
+
+    // Returns the Bidding with the bid, or this Bidding if it is SOLD or EXPIRED
+    public Bidding addBid(Bid bid) {
+        if (bidStatus.equals(BidStatus.SOLD) || bidStatus.equals(BidStatus.EXPIRED)) {
+            return this;
         }
+        BidStatus newStatus = bidStatus;
+        Date newDueDate = dueDate;
         // Update the status and due date if the bidding had not started yet
-        if (getBidStatus().equals(BidStatus.NOT_STARTED)) {
-            this.bidStatus = BidStatus.STARTED;
-            long now = new Date().getTime();
-            this.dueDate = new Date(now + (1 * ONE_MINUTE_IN_MILLIS));
+        if (bidStatus.equals(BidStatus.NOT_STARTED)) {
+            newStatus = BidStatus.STARTED;
+            newDueDate = new Date(bid.getDateTime().getTime() + (1 * ONE_MINUTE_IN_MILLIS));
         }
+        int newPrice = currentPrice + bid.getValue();
         // change the status to SOLD if the bidding is more than the buyNowPrice
-        if (getCurrentPrice() > getItem().getBuyNowPrice()) {
-            bidStatus = BidStatus.SOLD;
+        if (newPrice > item.getBuyNowPrice()) {
+            newStatus = BidStatus.SOLD;
         }
+        return new Bidding(item, newStatus, newDueDate, newPrice, bids.with(bid));
     }
 
-    public void expire() {
-        this.bidStatus = BidStatus.EXPIRED;
+    // Returns the EXPIRED Bidding if there's no more seconds left for the due date, otherwise this Bidding
+    public Bidding expire(long now) {
+        Integer secondsLeft = getSecondsLeft(now);
+        if (secondsLeft != null && secondsLeft <= 0) {
+            return new Bidding(item, BidStatus.EXPIRED, dueDate, currentPrice, bids);
+        }
+        return this;
     }
 
     public Integer getCurrentPrice() {
@@ -95,19 +103,21 @@ public class Bidding {
     }
 
     // Sell the item using its item "buy now" price
-    public void buyItNow() {
-        if (getBidStatus().equals(BidStatus.STARTED) || getBidStatus().equals(BidStatus.NOT_STARTED)) {
-            bidStatus = BidStatus.SOLD;
-            currentPrice = item.getBuyNowPrice();
+    public Bidding buyItNow() {
+        if (bidStatus.equals(BidStatus.STARTED) || bidStatus.equals(BidStatus.NOT_STARTED)) {
+            return new Bidding(item, BidStatus.SOLD, dueDate, item.getBuyNowPrice(), bids);
         }
+        return this;
     }
 
     // calculate how much seconds left to the bidding to become EXPIRED
     public Integer getSecondsLeft() {
-        if (getBidStatus().equals(BidStatus.STARTED)) {
-            Calendar now = new GregorianCalendar();
-            secondsLeft = (int) ((getDueDate().getTime() - now.getTime().getTime()) / 1000L);
-            return secondsLeft;
+        return getSecondsLeft(System.currentTimeMillis());
+    }
+
+    Integer getSecondsLeft(long now) {
+        if (bidStatus.equals(BidStatus.STARTED)) {
+            return (int) ((dueDate.getTime() - now) / 1000L);
         } else {
             return null;
         }
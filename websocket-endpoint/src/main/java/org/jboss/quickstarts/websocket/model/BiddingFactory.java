@@ -16,25 +16,50 @@
  */
 package org.jboss.quickstarts.websocket.model;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 public class BiddingFactory {
 
-    private static Bidding bidding;
+    public static final String DEFAULT_AUCTION_ID = "1";
 
-    // obtain a singleton instance of the Bidding
-    public static synchronized Bidding getBidding() {
-        if (bidding == null) {
-            resetBidding();
-        }
-        // expire the Bidding if there's no more seconds left for the due date
-        if (bidding.getSecondsLeft() != null && bidding.getSecondsLeft() <= 0) {
-            bidding.expire();
+    // the maximum number of auctions, as auctions are never removed
+    public static final int MAX_AUCTIONS = 100;
+
+    private static final ConcurrentMap<String, Auction> auctions = new ConcurrentHashMap<>();
+
+    static {
+        auctions.put(DEFAULT_AUCTION_ID, createAuction(DEFAULT_AUCTION_ID));
+    }
+
+    // obtain the auction with the specified id, which is created on first use, or null if
+    // it does not exist and there are already MAX_AUCTIONS auctions
+    public static Auction getAuction(String id) {
+        Auction auction = auctions.get(id);
+        if (auction == null) {
+            synchronized (auctions) {
+                auction = auctions.get(id);
+                if (auction == null && auctions.size() < MAX_AUCTIONS) {
+                    auction = createAuction(id);
+                    auctions.put(id, auction);
+                }
+            }
         }
-        return bidding;
+        return auction;
+    }
+
+    // obtain the Bidding of the default auction
+    public static Bidding getBidding() {
+        return getAuction(DEFAULT_AUCTION_ID).getBidding();
+    }
+
+    // creates a new bidding for the default auction
+    public static void resetBidding() {
+        getAuction(DEFAULT_AUCTION_ID).reset();
     }
 
-    // creates a new bidding
-    public static synchronized void resetBidding() {
+    private static Auction createAuction(String id) {
         Item item = new Item("1 Red Fedora Hat", "A beautiful red fedora hat that makes you charming!", 1000, "/resources/gfx/redfedora1.jpg");
-        bidding = new Bidding(item, 100);
+        return new Auction(id, item, 100);
     }
 }
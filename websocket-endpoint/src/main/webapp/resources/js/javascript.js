@@ -22,15 +22,7 @@ function updateBid(bidding) {
     $('#buyItNowPrice').text(bidding.item.buyNowPrice);
     $('#currentPrice').text(
             'Current price: USD ' + bidding.currentPrice + '.00');
-    var time = secondsToTime(bidding.secondsLeft);
-    $('#secondsLeft').text(
-            'Time left:  ' + time.h + 'h:' + time.m + 'm:' + time.s + 's');
-
-    if (bidding.secondsLeft < 10 && bidding.secondsLeft >= 1) {
-        $('#secondsLeft').attr('style', 'color: red');
-    } else {
-        $('#secondsLeft').removeAttr('style', 'color: red');
-    }
+    updateSecondsLeft(bidding.secondsLeft);
 
     var status = $('#status').text();
     if (status == 'EXPIRED' || status == 'SOLD') {
@@ -43,6 +35,74 @@ function updateBid(bidding) {
         $('#status').attr('style', 'color: blue');
     }
     updateTable(bidding.bids);
+    $('#bidCount').text(bidding.bids.length + ' of ' + bidding.bidCount + ' bids');
+    var oldest = bidding.bids[bidding.bids.length - 1];
+    if (oldest !== undefined && oldest.seq > 1) {
+        $('#olderBidsButton').removeAttr("disabled", "disabled");
+    } else {
+        $('#olderBidsButton').attr("disabled", "disabled");
+    }
+}
+
+// Fetch the page of bids before the oldest bid shown
+function showOlderBids() {
+    var oldest = bidding.bids[bidding.bids.length - 1];
+    wsocket.send(JSON.stringify({
+        "command" : "bidHistory",
+        "before" : oldest.seq,
+        "count" : lastBids
+    }));
+}
+
+function updateSecondsLeft(secondsLeft) {
+    var time = secondsToTime(secondsLeft);
+    $('#secondsLeft').text(
+            'Time left:  ' + time.h + 'h:' + time.m + 'm:' + time.s + 's');
+
+    if (secondsLeft < 10 && secondsLeft >= 1) {
+        $('#secondsLeft').attr('style', 'color: red');
+    } else {
+        $('#secondsLeft').removeAttr('style', 'color: red');
+    }
+}
+
+// The endpoint sends the whole bidding when the page connects, and then only
+// the changed fields and the new bids, which are merged into the bidding.
+// The bidding only has the most recent bids, older bids are fetched on request
+function onBiddingMessage(json) {
+    if (json.bidHistory !== undefined) {
+        bidding.bids = bidding.bids.concat(json.bidHistory);
+        bidding.bidCount = json.bidCount;
+        olderBidsShown = true;
+    } else if (json.item !== undefined) {
+        bidding = json;
+        olderBidsShown = false;
+    } else {
+        $.each(json, function(key, value) {
+            if (key != 'newBids') {
+                bidding[key] = value;
+            }
+        });
+        if (json.newBids !== undefined) {
+            bidding.bids = json.newBids.concat(bidding.bids);
+            // unless older bids were requested, only the most recent bids are shown
+            if (!olderBidsShown) {
+                bidding.bids = bidding.bids.slice(0, lastBids);
+            }
+        }
+    }
+    if (json.secondsLeft !== undefined) {
+        deadline = Date.now() + json.secondsLeft * 1000;
+    }
+    updateBid(bidding);
+}
+
+// The countdown runs in the page, the endpoint only notifies when the bidding expires
+function countdown() {
+    if (bidding !== undefined && bidding.bidStatus == 'STARTED') {
+        bidding.secondsLeft = Math.max(0, Math.round((deadline - Date.now()) / 1000));
+        updateSecondsLeft(bidding.secondsLeft);
+    }
 }
 
 function updateTable(bids) {
@@ -111,13 +171,14 @@ function openWebSocket() {
         port = 8000;
     }
     var wsProtocol = window.location.protocol == "https:" ? "wss" : "ws";
+    // the page's query, e.g. ?auction=2, selects the auction
     var wsurl = wsProtocol + "://" + loc.hostname + ':' + port + loc.pathname
-            + "/../bidsocket";
+            + "/../bidsocket" + loc.search;
     wsocket = new WebSocket(wsurl);
     wsocket.onmessage = function(evt) {
         var json = JSON.parse(evt.data);
         console.log(json);
-        updateBid(json);
+        onBiddingMessage(json);
     }
     wsocket.onerror = function(evt) {
         console.error(evt);
@@ -137,4 +198,10 @@ function sendWebSocketMessage(command, bidValue) {
 }
 
 var wsocket;
+var bidding;
+var deadline;
+// the number of most recent bids sent by the endpoint
+var lastBids = 10;
+var olderBidsShown = false;
 $(document).ready(openWebSocket());
+setInterval(countdown, 1000);